@@ -0,0 +1,73 @@
+package org.vietj.vertx.eventloop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares several threads printing lines with a {@code PrintStream} like {@code System.out} to an
+ * {@link AsyncPrintStream}, like the event loops printing at the same time.
+ *
+ * The {@code async} score counts the lines dropped when the writer thread falls behind, the lines dropped during
+ * each iteration are printed: the score only compares the printing threads when nothing is dropped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class AsyncPrintStreamBenchmark {
+
+  private static final OutputStream NO_OUTPUT = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  private final PrintStream locking = new PrintStream(NO_OUTPUT, true);
+  private final AsyncPrintStream async = new AsyncPrintStream(NO_OUTPUT, 64 * 1024 * 1024);
+
+  private long dropped;
+
+  @TearDown(Level.Iteration)
+  public void reportDropped() {
+    long total = async.dropped();
+    if (total > dropped) {
+      System.out.println("Dropped " + (total - dropped) + " lines");
+      dropped = total;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    async.close();
+  }
+
+  @Benchmark
+  public void locking() {
+    locking.println("Executed by Thread[vert.x-eventloop-thread-0,5,main]");
+  }
+
+  @Benchmark
+  public void async() {
+    async.println("Executed by Thread[vert.x-eventloop-thread-0,5,main]");
+  }
+}
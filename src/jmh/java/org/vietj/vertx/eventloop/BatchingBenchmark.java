@@ -0,0 +1,71 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares sending each message with {@code eventBus().send} to coalescing them with a {@link BatchingSender}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchingBenchmark extends BenchmarkBase {
+
+  @Param({"100"})
+  public int messages;
+
+  @Param({"16", "128"})
+  public int maxBatchSize;
+
+  private Context context;
+  private BatchingSender<Integer, Integer> sender;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    vertx.eventBus().<Integer>consumer("the-address", msg -> msg.reply(msg.body()));
+    BatchingConsumer.<Integer, Integer>consumer(vertx.eventBus(), "the-batch-address", (body, reply) -> reply.complete(body));
+    context = vertx.getOrCreateContext();
+    sender = BenchmarkBase.<BatchingSender<Integer, Integer>>await(handler -> context.runOnContext(v -> {
+      handler.handle(Future.succeededFuture(new BatchingSender<>(vertx, "the-batch-address", maxBatchSize)));
+    }));
+  }
+
+  @Benchmark
+  public void send() throws Exception {
+    BenchmarkBase.<Void>await(handler -> context.runOnContext(v -> {
+      Handler<AsyncResult<Message<Integer>>> replyHandler = countDown(handler);
+      for (int i = 0;i < messages;i++) {
+        vertx.eventBus().send("the-address", i, replyHandler);
+      }
+    }));
+  }
+
+  @Benchmark
+  public void batch() throws Exception {
+    BenchmarkBase.<Void>await(handler -> context.runOnContext(v -> {
+      Handler<AsyncResult<Integer>> replyHandler = countDown(handler);
+      for (int i = 0;i < messages;i++) {
+        sender.send(i, replyHandler);
+      }
+    }));
+  }
+
+  private <T> Handler<AsyncResult<T>> countDown(Handler<AsyncResult<Void>> done) {
+    AtomicInteger pending = new AtomicInteger(messages);
+    return ar -> {
+      if (ar.failed()) {
+        done.handle(Future.failedFuture(ar.cause()));
+      } else if (pending.decrementAndGet() == 0) {
+        done.handle(Future.succeededFuture());
+      }
+    };
+  }
+}
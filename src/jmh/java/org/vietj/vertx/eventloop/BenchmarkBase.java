@@ -0,0 +1,117 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Base state for the scenario benchmarks: each benchmark gets its own {@link Vertx} instance configured by
+ * {@link #options()} and deploys the scenario in {@link #deploy()}.
+ *
+ * The {@link Mode#Throughput} mode gives the operations per time unit and the {@link Mode#SampleTime} mode
+ * gives the p50/p99/p999 latency percentiles of a single operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public abstract class BenchmarkBase {
+
+  protected Vertx vertx;
+
+  protected VertxOptions options() {
+    return new VertxOptions();
+  }
+
+  protected abstract void deploy(Vertx vertx) throws Exception;
+
+  @Setup
+  public void setup() throws Exception {
+    vertx = Vertx.vertx(options());
+    deploy(vertx);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    BenchmarkBase.<Void>await(vertx::close);
+  }
+
+  /**
+   * Wait until a consumer is registered on the {@code address}, this is used for scenarios that deploy their
+   * verticles without a completion handler.
+   */
+  protected void awaitConsumer(String address) throws Exception {
+    while (true) {
+      try {
+        BenchmarkBase.<Message<Object>>await(handler -> vertx.eventBus().send(address, 0, handler));
+        return;
+      } catch (ReplyException e) {
+        if (e.failureType() != ReplyFailure.NO_HANDLERS) {
+          throw e;
+        }
+        Thread.sleep(1);
+      }
+    }
+  }
+
+  /**
+   * Send {@code messages} to {@code "the-address"} all at once and wait until all replies are received.
+   */
+  protected void sendAll(int messages) throws Exception {
+    BenchmarkBase.<Void>await(handler -> {
+      AtomicInteger pending = new AtomicInteger(messages);
+      for (int i = 0;i < messages;i++) {
+        vertx.eventBus().send("the-address", "the-message", reply -> {
+          if (reply.failed()) {
+            handler.handle(Future.failedFuture(reply.cause()));
+          } else if (pending.decrementAndGet() == 0) {
+            handler.handle(Future.succeededFuture());
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Block the benchmark thread until the asynchronous operation completes.
+   */
+  protected static <T> T await(Consumer<Handler<AsyncResult<T>>> operation) throws Exception {
+    CompletableFuture<T> fut = new CompletableFuture<>();
+    operation.accept(ar -> {
+      if (ar.succeeded()) {
+        fut.complete(ar.result());
+      } else {
+        fut.completeExceptionally(ar.cause());
+      }
+    });
+    try {
+      return fut.get(30, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+}
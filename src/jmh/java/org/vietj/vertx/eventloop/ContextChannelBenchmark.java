@@ -0,0 +1,67 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares handing off events from a non Vert.x thread with {@code context.runOnContext} to a
+ * {@link ContextChannel}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextChannelBenchmark extends BenchmarkBase {
+
+  @Param({"1000"})
+  public int events;
+
+  private Context context;
+  private ContextChannel<Integer> channel;
+  private long received;
+  private long expected;
+  private CompletableFuture<Void> done;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    context = vertx.getOrCreateContext();
+    channel = new ContextChannel<>(context, 4096, this::handle);
+  }
+
+  private void handle(Integer event) {
+    if (++received == expected) {
+      done.complete(null);
+    }
+  }
+
+  @Benchmark
+  public void runOnContext() throws Exception {
+    CompletableFuture<Void> latch = expect();
+    for (int i = 0;i < events;i++) {
+      Integer event = i;
+      context.runOnContext(v -> handle(event));
+    }
+    latch.get(30, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public void channel() throws Exception {
+    CompletableFuture<Void> latch = expect();
+    for (int i = 0;i < events;i++) {
+      while (!channel.offer(i)) {
+        Thread.yield();
+      }
+    }
+    latch.get(30, TimeUnit.SECONDS);
+  }
+
+  private CompletableFuture<Void> expect() {
+    // The previous events are all received
+    done = new CompletableFuture<>();
+    expected = received + events;
+    return done;
+  }
+}
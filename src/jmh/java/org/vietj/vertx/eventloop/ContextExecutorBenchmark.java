@@ -0,0 +1,50 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a chain of {@code CompletableFuture} stages running on a context with a {@link ContextExecutor}
+ * scheduling each stage to a direct one.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextExecutorBenchmark extends BenchmarkBase {
+
+  @Param({"10"})
+  public int stages;
+
+  private ContextExecutor scheduled;
+  private ContextExecutor direct;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    Context context = vertx.getOrCreateContext();
+    scheduled = ContextExecutor.of(context);
+    direct = ContextExecutor.direct(context);
+  }
+
+  @Benchmark
+  public int scheduled() throws Exception {
+    return chain(scheduled);
+  }
+
+  @Benchmark
+  public int direct() throws Exception {
+    return chain(direct);
+  }
+
+  private int chain(Executor executor) throws Exception {
+    CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 0, executor);
+    for (int i = 0;i < stages;i++) {
+      future = future.thenApplyAsync(n -> n + 1, executor);
+    }
+    return future.get(30, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,68 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Arrays;
+
+/**
+ * Measures the {@link CpuAffinity} of the event loops: the consumers of {@code "the-address"} walk a working set
+ * that fits in the core caches for each message, when the event loops migrate across cores the working set has to
+ * be fetched again from the caches of the previous core.
+ *
+ * The event loops are pinned to all the CPUs but the last one, the workers to the last one. With a single CPU
+ * everything runs on the same CPU and both variants are expected to be equal.
+ */
+public class CpuAffinityBenchmark extends BenchmarkBase {
+
+  private static final int WORKING_SET = 64 * 1024 / 8;
+
+  @Param({"false", "true"})
+  public boolean pinned;
+
+  private int[] eventLoopCpus;
+  private int[] workerCpus;
+
+  @Override
+  protected VertxOptions options() {
+    int[] cpus = CpuAffinity.availableCpus();
+    eventLoopCpus = cpus.length > 1 ? Arrays.copyOf(cpus, cpus.length - 1) : cpus;
+    workerCpus = new int[] { cpus[cpus.length - 1] };
+    return new VertxOptions().setEventLoopPoolSize(eventLoopCpus.length);
+  }
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    if (pinned) {
+      CpuAffinity.pinWorkers(vertx, workerCpus);
+      BenchmarkBase.<Void>await(handler -> CpuAffinity.pinEventLoops(vertx, eventLoopCpus, handler));
+    }
+    BenchmarkBase.<String>await(handler -> vertx.deployVerticle(WorkingSetVerticle.class.getName(),
+        new DeploymentOptions().setInstances(eventLoopCpus.length), handler));
+  }
+
+  @Benchmark
+  public void sendAll() throws Exception {
+    sendAll(100);
+  }
+
+  public static class WorkingSetVerticle extends AbstractVerticle {
+
+    private final long[] workingSet = new long[WORKING_SET];
+
+    @Override
+    public void start() throws Exception {
+      vertx.eventBus().consumer("the-address", msg -> {
+        long sum = 0;
+        for (int i = 0;i < workingSet.length;i++) {
+          sum += workingSet[i]++;
+        }
+        msg.reply(sum);
+      });
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExecuteBlockingSuccess}: the round trip from the event loop to a worker thread and back to
+ * the event loop.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExecuteBlockingSuccessBenchmark extends BenchmarkBase {
+
+  private Context context;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    context = vertx.getOrCreateContext();
+  }
+
+  @Benchmark
+  public String executeBlocking() throws Exception {
+    return await(handler -> context.runOnContext(v -> {
+      vertx.<String>executeBlocking(future -> future.complete("some result"), handler);
+    }));
+  }
+}
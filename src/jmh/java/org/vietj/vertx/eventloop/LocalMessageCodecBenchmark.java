@@ -0,0 +1,42 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the local delivery of a buffer with the Vert.x codec (copy) and with the
+ * {@link LocalMessageCodec#BUFFER_SLICE} codec (by reference).
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LocalMessageCodecBenchmark extends BenchmarkBase {
+
+  @Param({"1024", "1048576"})
+  public int size;
+
+  private Buffer payload;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    payload = Buffer.buffer(new byte[size]);
+    LocalMessageCodec.BUFFER_SLICE.register(vertx.eventBus());
+    vertx.eventBus().<Buffer>consumer("the-address", msg -> msg.reply(msg.body().length()));
+  }
+
+  @Benchmark
+  public Object copy() throws Exception {
+    Message<Integer> reply = await(handler -> vertx.eventBus().send("the-address", payload, handler));
+    return reply.body();
+  }
+
+  @Benchmark
+  public Object slice() throws Exception {
+    Message<Integer> reply = await(handler -> vertx.eventBus().send("the-address", payload, LocalMessageCodec.BUFFER_SLICE.options(), handler));
+    return reply.body();
+  }
+}
@@ -0,0 +1,42 @@
+package org.vietj.vertx.eventloop;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares a shared {@link AtomicLong} with a {@link ShardedCounter} updated by several threads, like the
+ * instances of a verticle deployed on several event loops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class ShardedCounterBenchmark {
+
+  private final AtomicLong atomic = new AtomicLong();
+  private final ShardedCounter sharded = new ShardedCounter();
+
+  @Benchmark
+  public long atomic() {
+    return atomic.incrementAndGet();
+  }
+
+  @Benchmark
+  public void sharded() {
+    sharded.increment();
+  }
+}
@@ -0,0 +1,41 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SharingStateInContext}: reading the state of a verticle deployed on an event loop context
+ * (plain field) versus a worker context (atomic field).
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SharingStateInContextBenchmark extends BenchmarkBase {
+
+  @Param({"eventLoop", "worker"})
+  public String context;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    switch (context) {
+      case "eventLoop":
+        SharingStateInContext.eventLoop(vertx);
+        break;
+      case "worker":
+        SharingStateInContext.worker(vertx);
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid context " + context);
+    }
+    awaitConsumer("the-address");
+  }
+
+  @Benchmark
+  public Object readState() throws Exception {
+    Message<Integer> reply = await(handler -> vertx.eventBus().send("the-address", "the-message", handler));
+    return reply.body();
+  }
+}
@@ -0,0 +1,60 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scheduling and cancelling short timeouts with {@code vertx.setTimer} and with a {@link TimerWheel},
+ * the common case of a request timeout cancelled when the response arrives.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimerWheelBenchmark extends BenchmarkBase {
+
+  @Param("1000")
+  public int timers;
+
+  private Context context;
+  private TimerWheel wheel;
+  private long[] ids;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    context = vertx.getOrCreateContext();
+    ids = new long[timers];
+    wheel = BenchmarkBase.<TimerWheel>await(handler -> context.runOnContext(v -> {
+      handler.handle(Future.succeededFuture(new TimerWheel(vertx, 1, TimeUnit.MILLISECONDS)));
+    }));
+  }
+
+  @Benchmark
+  public void vertxTimer() throws Exception {
+    BenchmarkBase.<Void>await(handler -> context.runOnContext(v -> {
+      for (int i = 0;i < timers;i++) {
+        ids[i] = vertx.setTimer(100 + i, id -> {});
+      }
+      for (int i = 0;i < timers;i++) {
+        vertx.cancelTimer(ids[i]);
+      }
+      handler.handle(Future.succeededFuture());
+    }));
+  }
+
+  @Benchmark
+  public void timerWheel() throws Exception {
+    BenchmarkBase.<Void>await(handler -> context.runOnContext(v -> {
+      for (int i = 0;i < timers;i++) {
+        ids[i] = wheel.setTimer(100 + i, id -> {});
+      }
+      for (int i = 0;i < timers;i++) {
+        wheel.cancelTimer(ids[i]);
+      }
+      handler.handle(Future.succeededFuture());
+    }));
+  }
+}
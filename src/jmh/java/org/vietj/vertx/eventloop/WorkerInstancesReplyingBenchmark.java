@@ -0,0 +1,32 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@link WorkerInstancesReplying}: several instances of {@link TheWorker} process the messages sent
+ * all at once.
+ */
+public class WorkerInstancesReplyingBenchmark extends BenchmarkBase {
+
+  @Param("3")
+  public int instances;
+
+  @Param("10")
+  public int messages;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    BenchmarkBase.<String>await(handler -> vertx.deployVerticle(
+        TheWorker.class.getName(),
+        new DeploymentOptions().setWorker(true).setInstances(instances),
+        handler));
+  }
+
+  @Benchmark
+  public void sendAndReply() throws Exception {
+    sendAll(messages);
+  }
+}
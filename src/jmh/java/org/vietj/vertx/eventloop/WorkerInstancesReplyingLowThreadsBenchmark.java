@@ -0,0 +1,40 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@link WorkerInstancesReplyingLowThreads}: more instances of {@link TheWorker} than worker threads.
+ */
+public class WorkerInstancesReplyingLowThreadsBenchmark extends BenchmarkBase {
+
+  @Param("2")
+  public int workerPoolSize;
+
+  @Param("4")
+  public int instances;
+
+  @Param("10")
+  public int messages;
+
+  @Override
+  protected VertxOptions options() {
+    return new VertxOptions().setWorkerPoolSize(workerPoolSize);
+  }
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    BenchmarkBase.<String>await(handler -> vertx.deployVerticle(
+        TheWorker.class.getName(),
+        new DeploymentOptions().setWorker(true).setInstances(instances),
+        handler));
+  }
+
+  @Benchmark
+  public void sendAndReply() throws Exception {
+    sendAll(messages);
+  }
+}
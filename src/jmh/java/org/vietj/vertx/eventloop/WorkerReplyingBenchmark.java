@@ -0,0 +1,43 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@link WorkerReplying}: a single worker verticle receives the messages one after the other, the next
+ * message is sent when the reply of the previous one is received.
+ */
+public class WorkerReplyingBenchmark extends BenchmarkBase {
+
+  @Param("10")
+  public int messages;
+
+  @Override
+  protected void deploy(Vertx vertx) throws Exception {
+    BenchmarkBase.<String>await(handler -> vertx.deployVerticle(TheWorker.class.getName(), new DeploymentOptions().setWorker(true), handler));
+  }
+
+  @Benchmark
+  public void sendAndReply() throws Exception {
+    BenchmarkBase.<Void>await(handler -> send(messages, handler));
+  }
+
+  private void send(int count, Handler<AsyncResult<Void>> done) {
+    if (count > 0) {
+      vertx.eventBus().send("the-address", count, reply -> {
+        if (reply.succeeded()) {
+          send(count - 1, done);
+        } else {
+          done.handle(Future.failedFuture(reply.cause()));
+        }
+      });
+    } else {
+      done.handle(Future.succeededFuture());
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A worker executor growing and shrinking between a minimum and a maximum number of threads according to the time
+ * the tasks wait in its queue, instead of the fixed size set with {@code VertxOptions#setWorkerPoolSize}.
+ *
+ * At every interval the average queue wait of the tasks started during the interval is compared to the target
+ * wait. The pool grows by half of its size when the wait stays above the target for {@link #STREAK} intervals, and
+ * shrinks by an eighth of its size when the wait stays well below the target with less than half of the threads
+ * busy for as many intervals, so a single noisy interval does not resize the pool.
+ *
+ * A growth is only kept going when it pays off: the pool does not grow again when the throughput, the number of
+ * tasks started per interval, did not increase by at least 10% since the previous growth, since the tasks are then
+ * limited by something else than the threads. Idle threads above the current size are released when they become
+ * idle.
+ */
+public class AdaptiveWorkerExecutor {
+
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * The number of consecutive intervals the wait must be above or below the target before resizing.
+   */
+  static final int STREAK = 3;
+
+  private final int minSize;
+  private final int maxSize;
+  private final long targetWaitNanos;
+  private final ThreadPoolExecutor pool;
+  private final ScheduledExecutorService controller;
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder started = new LongAdder();
+  private volatile long lastAverageWaitNanos;
+  private volatile long lastThroughput;
+  // Only accessed by the controller thread
+  private int overloaded;
+  private int underloaded;
+  private long throughputBeforeGrowth = -1;
+
+  public AdaptiveWorkerExecutor(int minSize, int maxSize, long targetWait, TimeUnit unit) {
+    this(minSize, maxSize, targetWait, unit, 100, TimeUnit.MILLISECONDS);
+  }
+
+  public AdaptiveWorkerExecutor(int minSize, int maxSize, long targetWait, TimeUnit unit, long interval, TimeUnit intervalUnit) {
+    if (minSize < 1 || maxSize < minSize) {
+      throw new IllegalArgumentException("Invalid bounds min=" + minSize + " max=" + maxSize);
+    }
+    this.minSize = minSize;
+    this.maxSize = maxSize;
+    this.targetWaitNanos = unit.toNanos(targetWait);
+    AtomicInteger serial = new AtomicInteger();
+    this.pool = new ThreadPoolExecutor(minSize, maxSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread thread = new Thread(r, "vert.x-adaptive-worker-thread-" + serial.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.controller = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "vert.x-adaptive-worker-controller");
+      thread.setDaemon(true);
+      return thread;
+    });
+    controller.scheduleAtFixedRate(this::adapt, interval, interval, intervalUnit);
+  }
+
+  /**
+   * Execute the blocking code handler on this executor and call the result handler on the current context, like
+   * {@code vertx.executeBlocking} does. The blocking code handlers are not ordered.
+   */
+  public <T> void executeBlocking(Vertx vertx, Handler<Future<T>> blockingCodeHandler, Handler<AsyncResult<T>> resultHandler) {
+    Context context = vertx.getOrCreateContext();
+    long submitted = System.nanoTime();
+    pool.execute(() -> {
+      waitNanos.add(System.nanoTime() - submitted);
+      started.increment();
+      Future<T> future = Future.future();
+      try {
+        blockingCodeHandler.handle(future);
+      } catch (Throwable t) {
+        if (!future.isComplete()) {
+          future.fail(t);
+        }
+      }
+      future.setHandler(ar -> context.runOnContext(v -> resultHandler.handle(ar)));
+    });
+  }
+
+  /**
+   * @return the current number of threads the pool can use
+   */
+  public int size() {
+    return pool.getCorePoolSize();
+  }
+
+  /**
+   * @return the average queue wait in nanoseconds measured during the last interval
+   */
+  public long averageWait() {
+    return lastAverageWaitNanos;
+  }
+
+  /**
+   * @return the number of tasks started during the last interval
+   */
+  public long throughput() {
+    return lastThroughput;
+  }
+
+  public void close() {
+    controller.shutdownNow();
+    pool.shutdown();
+  }
+
+  private void adapt() {
+    long count = started.sumThenReset();
+    long wait = waitNanos.sumThenReset();
+    long averageWait = count > 0 ? wait / count : 0;
+    lastAverageWaitNanos = averageWait;
+    lastThroughput = count;
+    int size = pool.getCorePoolSize();
+    overloaded = averageWait > targetWaitNanos || pool.getQueue().size() > size ? overloaded + 1 : 0;
+    underloaded = averageWait < targetWaitNanos / 4 && pool.getActiveCount() < size / 2 ? underloaded + 1 : 0;
+    if (overloaded >= STREAK) {
+      overloaded = 0;
+      if (throughputBeforeGrowth >= 0 && count * 10 < throughputBeforeGrowth * 11) {
+        // The previous growth did not increase the throughput, measure again from here before growing
+        throughputBeforeGrowth = -1;
+        return;
+      }
+      int newSize = Math.min(maxSize, size + Math.max(1, size / 2));
+      if (newSize != size) {
+        throughputBeforeGrowth = count;
+        pool.setCorePoolSize(newSize);
+      }
+    } else if (underloaded >= STREAK && size > minSize) {
+      underloaded = 0;
+      throughputBeforeGrowth = -1;
+      pool.setCorePoolSize(Math.max(minSize, size - Math.max(1, size / 8)));
+    }
+  }
+}
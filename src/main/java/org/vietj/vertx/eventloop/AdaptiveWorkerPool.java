@@ -0,0 +1,41 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class AdaptiveWorkerPool {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    AdaptiveWorkerExecutor executor = new AdaptiveWorkerExecutor(2, 100, 5, TimeUnit.MILLISECONDS);
+
+    // A peak of 20 blocking calls every 10 ms during 2 seconds
+    long peak = vertx.setPeriodic(10, id -> {
+      for (int i = 0;i < 20;i++) {
+        executor.<Void>executeBlocking(vertx, future -> {
+          try {
+            Thread.sleep(10);
+          } catch (InterruptedException ignore) {
+          }
+          future.complete();
+        }, ar -> {});
+      }
+    });
+    vertx.setTimer(2000, id -> vertx.cancelTimer(peak));
+
+    vertx.setPeriodic(500, id -> {
+      System.out.println("Pool size " + executor.size() + " average wait " +
+          TimeUnit.NANOSECONDS.toMillis(executor.averageWait()) + " ms");
+    });
+    vertx.setTimer(6000, id -> {
+      executor.close();
+      vertx.close();
+    });
+  }
+}
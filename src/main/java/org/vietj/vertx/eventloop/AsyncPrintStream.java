@@ -0,0 +1,377 @@
+package org.vietj.vertx.eventloop;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PrintStream} that does not lock: each thread appends to its own line buffer and a single background
+ * thread writes the completed lines to their output, so the event loops printing at the same time do not
+ * serialize on the lock of {@code System.out} nor wait for the output.
+ *
+ * The lines of a thread are written in order. The order of the lines of different threads is only approximated:
+ * the writer orders the lines it collects in one pass by completion time, a line can still be written after a
+ * line another thread completed later. At most {@code maxPendingBytes} of completed lines wait for the writer, the
+ * lines completed beyond this limit are dropped and counted by {@link #dropped()}.
+ *
+ * The output of a line is chosen by the thread completing it, so the stream can route the lines of each thread
+ * to a different output. {@link #close()} writes the pending lines and stops the writer thread, the outputs are
+ * not closed. The text of a thread not terminated by a new line is written as a line when the thread terminates or
+ * when the stream is closed. The lines completed after the stream is closed are dropped, a stream installed as
+ * {@code System.out} should be replaced before it is closed.
+ */
+public class AsyncPrintStream extends PrintStream {
+
+  private static final OutputStream NO_OUTPUT = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+  };
+
+  private final Supplier<OutputStream> output;
+  private final long maxPendingBytes;
+  private final Charset charset = Charset.defaultCharset();
+  private final byte[] newLine = System.lineSeparator().getBytes(charset);
+  private final List<Lane> lanes = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Lane> lane = ThreadLocal.withInitial(() -> {
+    Lane lane = new Lane(Thread.currentThread());
+    lanes.add(lane);
+    return lane;
+  });
+  private final AtomicLong pendingBytes = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final Thread writer;
+  private volatile boolean closed;
+
+  public AsyncPrintStream(OutputStream output, long maxPendingBytes) {
+    this(() -> output, maxPendingBytes);
+  }
+
+  public AsyncPrintStream(Supplier<OutputStream> output, long maxPendingBytes) {
+    super(NO_OUTPUT);
+    if (maxPendingBytes < 1) {
+      throw new IllegalArgumentException("Max pending bytes must be > 0");
+    }
+    this.output = output;
+    this.maxPendingBytes = maxPendingBytes;
+    this.writer = new Thread(this::drain, "vert.x-output-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * @return the number of lines dropped because too many bytes were waiting for the writer or the stream was closed
+   */
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  @Override
+  public void write(int b) {
+    lane.get().append(new byte[]{(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] buf, int off, int len) {
+    lane.get().append(buf, off, len);
+  }
+
+  @Override
+  public void print(String s) {
+    byte[] bytes = String.valueOf(s).getBytes(charset);
+    lane.get().append(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void print(boolean b) {
+    print(String.valueOf(b));
+  }
+
+  @Override
+  public void print(char c) {
+    print(String.valueOf(c));
+  }
+
+  @Override
+  public void print(int i) {
+    print(String.valueOf(i));
+  }
+
+  @Override
+  public void print(long l) {
+    print(String.valueOf(l));
+  }
+
+  @Override
+  public void print(float f) {
+    print(String.valueOf(f));
+  }
+
+  @Override
+  public void print(double d) {
+    print(String.valueOf(d));
+  }
+
+  @Override
+  public void print(char[] s) {
+    print(new String(s));
+  }
+
+  @Override
+  public void print(Object obj) {
+    print(String.valueOf(obj));
+  }
+
+  @Override
+  public void println() {
+    lane.get().append(newLine, 0, newLine.length);
+  }
+
+  @Override
+  public void println(String x) {
+    print(x + System.lineSeparator());
+  }
+
+  @Override
+  public void println(boolean x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(char x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(int x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(long x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(float x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(double x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public void println(char[] x) {
+    println(new String(x));
+  }
+
+  @Override
+  public void println(Object x) {
+    println(String.valueOf(x));
+  }
+
+  @Override
+  public PrintStream format(String format, Object... args) {
+    print(String.format(format, args));
+    return this;
+  }
+
+  @Override
+  public PrintStream format(Locale l, String format, Object... args) {
+    print(String.format(l, format, args));
+    return this;
+  }
+
+  @Override
+  public void flush() {
+    LockSupport.unpark(writer);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // Write the unterminated lines, the writer is stopped
+    Set<OutputStream> outputs = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Lane lane : lanes) {
+      Line line = lane.takePartial();
+      if (line != null) {
+        write(line, outputs);
+      }
+    }
+    flush(outputs);
+  }
+
+  private void drain() {
+    List<Line> lines = new ArrayList<>();
+    while (true) {
+      boolean last = closed;
+      for (Lane lane : lanes) {
+        Line line;
+        while ((line = lane.lines.poll()) != null) {
+          lines.add(line);
+        }
+        if (!lane.thread.isAlive() && lane.lines.isEmpty()) {
+          // The thread terminated, write the text it did not terminate with a new line
+          Line partial = lane.takePartial();
+          if (partial != null) {
+            lines.add(partial);
+          }
+          lanes.remove(lane);
+        }
+      }
+      if (lines.isEmpty()) {
+        if (last) {
+          return;
+        }
+        LockSupport.parkNanos(1_000_000);
+        continue;
+      }
+      lines.sort((l1, l2) -> Long.compare(l1.time, l2.time));
+      Set<OutputStream> outputs = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Line line : lines) {
+        write(line, outputs);
+      }
+      lines.clear();
+      flush(outputs);
+    }
+  }
+
+  private void write(Line line, Set<OutputStream> outputs) {
+    try {
+      line.output.write(line.bytes);
+      outputs.add(line.output);
+    } catch (IOException e) {
+      setError();
+    }
+    pendingBytes.addAndGet(-line.bytes.length);
+  }
+
+  private void flush(Set<OutputStream> outputs) {
+    for (OutputStream output : outputs) {
+      try {
+        output.flush();
+      } catch (IOException e) {
+        setError();
+      }
+    }
+  }
+
+  private class Lane {
+
+    final Thread thread;
+    final ConcurrentLinkedQueue<Line> lines = new ConcurrentLinkedQueue<>();
+    final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    OutputStream partialOutput;
+
+    Lane(Thread thread) {
+      this.thread = thread;
+    }
+
+    // Synchronized with takePartial, the lock is uncontended otherwise
+    synchronized void append(byte[] buf, int off, int len) {
+      if (partial.size() == 0 && off == 0 && len == buf.length && len > 0 && buf[len - 1] == '\n' && indexOfNewLine(buf, len - 1) < 0) {
+        // A whole line, like a println
+        complete(buf);
+        return;
+      }
+      int end = off + len;
+      int start = off;
+      for (int i = off;i < end;i++) {
+        if (buf[i] == '\n') {
+          partial.write(buf, start, i + 1 - start);
+          complete();
+          start = i + 1;
+        }
+      }
+      if (start < end) {
+        if (partial.size() == 0) {
+          // The output of the thread printing the line
+          partialOutput = output.get();
+        }
+        partial.write(buf, start, end - start);
+      }
+    }
+
+    /**
+     * @return the text not terminated by a new line or {@code null}
+     */
+    synchronized Line takePartial() {
+      if (partial.size() == 0) {
+        return null;
+      }
+      byte[] bytes = partial.toByteArray();
+      partial.reset();
+      pendingBytes.addAndGet(bytes.length);
+      return new Line(System.nanoTime(), partialOutput, bytes);
+    }
+
+    private void complete() {
+      byte[] bytes = partial.toByteArray();
+      partial.reset();
+      complete(bytes);
+    }
+
+    private void complete(byte[] bytes) {
+      if (closed) {
+        dropped.increment();
+        return;
+      }
+      if (pendingBytes.addAndGet(bytes.length) > maxPendingBytes) {
+        pendingBytes.addAndGet(-bytes.length);
+        dropped.increment();
+        return;
+      }
+      Line line = new Line(System.nanoTime(), output.get(), bytes);
+      lines.add(line);
+      if (closed && lines.remove(line)) {
+        // Closed meanwhile, the line might not be written by the last pass of the writer
+        pendingBytes.addAndGet(-bytes.length);
+        dropped.increment();
+      }
+    }
+  }
+
+  private static int indexOfNewLine(byte[] buf, int len) {
+    for (int i = 0;i < len;i++) {
+      if (buf[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static class Line {
+
+    final long time;
+    final OutputStream output;
+    final byte[] bytes;
+
+    Line(long time, OutputStream output, byte[] bytes) {
+      this.time = time;
+      this.output = output;
+      this.bytes = bytes;
+    }
+  }
+}
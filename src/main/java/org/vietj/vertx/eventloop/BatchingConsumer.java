@@ -0,0 +1,48 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Consumes the envelopes of a {@link BatchingSender}: the handler is called for each message of the envelope
+ * and completes the future with the reply of this message, the envelope is replied when all the futures are
+ * completed.
+ */
+public class BatchingConsumer {
+
+  @SuppressWarnings("unchecked")
+  public static <T, R> MessageConsumer<BatchingSender.Envelope> consumer(EventBus eventBus, String address, BiConsumer<T, Future<R>> handler) {
+    BatchingSender.CODEC.register(eventBus);
+    return eventBus.consumer(address, msg -> {
+      BatchingSender.Envelope envelope = msg.body();
+      AsyncResult<?>[] results = new AsyncResult<?>[envelope.bodies.size()];
+      AtomicInteger pending = new AtomicInteger(results.length);
+      for (int i = 0;i < results.length;i++) {
+        int index = i;
+        Future<R> future = Future.future();
+        future.setHandler(ar -> {
+          results[index] = ar.succeeded() ? ar :
+              Future.failedFuture(new ReplyException(ReplyFailure.RECIPIENT_FAILURE, String.valueOf(ar.cause().getMessage())));
+          if (pending.decrementAndGet() == 0) {
+            envelope.results = results;
+            msg.reply(envelope, BatchingSender.CODEC.options());
+          }
+        });
+        try {
+          handler.accept((T) envelope.bodies.get(i), future);
+        } catch (Exception e) {
+          if (!future.isComplete()) {
+            future.fail(e);
+          }
+        }
+      }
+    });
+  }
+}
@@ -0,0 +1,106 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces the messages sent to an address during the same task of the context, or up to a maximum number of
+ * messages, into a single {@link Envelope} consumed by a {@link BatchingConsumer}. The replies of the envelope are
+ * dispatched back to the reply handler of each message.
+ *
+ * The sender is bound to the context that created it and must only be used from this context, just like the
+ * state of a verticle deployed on an event loop.
+ *
+ * The envelopes are delivered by reference with the local only {@link #CODEC}, so the bodies and the replies can
+ * be of any type but the consumer must be in the same Vertx instance.
+ */
+public class BatchingSender<T, R> {
+
+  /**
+   * The codec of the envelopes and their replies.
+   */
+  static final LocalMessageCodec<Envelope> CODEC = LocalMessageCodec.local(Envelope.class);
+
+  /**
+   * The messages of a batch, the consumer sets the result of each message and replies with the envelope.
+   */
+  public static final class Envelope {
+
+    final List<Object> bodies = new ArrayList<>();
+    AsyncResult<?>[] results;
+
+    private Envelope() {
+    }
+  }
+
+  private final Vertx vertx;
+  private final Context context;
+  private final String address;
+  private final int maxBatchSize;
+  private Envelope envelope;
+  private List<Handler<AsyncResult<R>>> replyHandlers;
+
+  public BatchingSender(Vertx vertx, String address, int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Max batch size must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.address = address;
+    this.maxBatchSize = maxBatchSize;
+    CODEC.register(vertx.eventBus());
+  }
+
+  public BatchingSender<T, R> send(T body, Handler<AsyncResult<R>> replyHandler) {
+    if (envelope == null) {
+      Envelope batch = envelope = new Envelope();
+      replyHandlers = new ArrayList<>();
+      // Flush this batch when the current task is done, unless it was already sent because it was full
+      context.runOnContext(v -> {
+        if (envelope == batch) {
+          flush();
+        }
+      });
+    }
+    envelope.bodies.add(body);
+    replyHandlers.add(replyHandler);
+    if (envelope.bodies.size() >= maxBatchSize) {
+      flush();
+    }
+    return this;
+  }
+
+  /**
+   * Send the pending messages now.
+   */
+  public void flush() {
+    if (envelope == null) {
+      return;
+    }
+    Envelope batch = envelope;
+    List<Handler<AsyncResult<R>>> handlers = replyHandlers;
+    envelope = null;
+    replyHandlers = null;
+    vertx.eventBus().<Envelope>send(address, batch, CODEC.options(), ar -> {
+      if (ar.succeeded()) {
+        dispatch(ar.result().body(), handlers);
+      } else {
+        Future<R> failure = Future.failedFuture(ar.cause());
+        handlers.forEach(handler -> handler.handle(failure));
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void dispatch(Envelope reply, List<Handler<AsyncResult<R>>> handlers) {
+    for (int i = 0;i < handlers.size();i++) {
+      handlers.get(i).handle((AsyncResult<R>) reply.results[i]);
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package org.vietj.vertx.eventloop;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Samples the stacks of event loop threads at a fixed interval and attributes the time spent to the handler
+ * that was running, unlike the {@code BlockedThreadChecker} that only warns after seconds with a single stack.
+ *
+ * The handler is the outermost application frame of the stack, i.e the first frame above the Vert.x and Netty
+ * frames that dispatched it. A handler is considered running as long as consecutive samples observe it, when
+ * it is not observed anymore its duration is recorded in the histogram of this handler. The resolution of the
+ * durations is the sampling interval.
+ *
+ * Sampling a stack takes a safepoint, so the stacks are not sampled at every interval: a Vert.x thread exposes the
+ * start time of the task it is running, only the threads running the same task for more than the {@link #threshold}
+ * are sampled, once per task. The duration of the task is then known from its start time and recorded when the thread
+ * starts another task. The stacks are captured up to {@link #maxDepth} frames, the handler of a deeper stack is the
+ * outermost application frame of the captured frames. Other threads do not expose their tasks and their stack is
+ * sampled at every interval.
+ *
+ * The histograms are only written by the sampling thread.
+ */
+public class BlockedThreadSampler {
+
+  private static final String[] FRAMEWORK_PACKAGES = {
+      "java.", "javax.", "sun.", "jdk.", "io.netty.", "io.vertx.core."
+  };
+
+  private static final Method START_TIME = startTimeMethod();
+
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+  private final long intervalNanos;
+  private volatile long thresholdNanos;
+  private volatile int maxDepth = 128;
+  private final Map<Long, SampledThread> threads = new ConcurrentHashMap<>();
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+  private volatile Thread sampler;
+
+  public BlockedThreadSampler(long interval, TimeUnit unit) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be > 0");
+    }
+    this.intervalNanos = unit.toNanos(interval);
+    this.thresholdNanos = intervalNanos;
+  }
+
+  /**
+   * Set the time a task must run before the stack of its thread is sampled, the interval by default.
+   */
+  public BlockedThreadSampler threshold(long threshold, TimeUnit unit) {
+    this.thresholdNanos = unit.toNanos(threshold);
+    return this;
+  }
+
+  /**
+   * Set the maximum number of frames captured per stack, 128 by default.
+   */
+  public BlockedThreadSampler maxDepth(int maxDepth) {
+    if (maxDepth < 1) {
+      throw new IllegalArgumentException("Max depth must be > 0");
+    }
+    this.maxDepth = maxDepth;
+    return this;
+  }
+
+  /**
+   * Sample all the event loop threads of the {@code vertx} instance.
+   */
+  public BlockedThreadSampler sampleEventLoops(Vertx vertx) {
+    for (EventExecutor executor : vertx.nettyEventLoopGroup()) {
+      executor.execute(() -> sample(Thread.currentThread()));
+    }
+    return this;
+  }
+
+  public BlockedThreadSampler sample(Thread thread) {
+    threads.putIfAbsent(thread.getId(), new SampledThread(thread));
+    return this;
+  }
+
+  public synchronized BlockedThreadSampler start() {
+    if (sampler == null) {
+      sampler = new Thread(this::run, "vert.x-blocked-thread-sampler");
+      sampler.setDaemon(true);
+      sampler.start();
+    }
+    return this;
+  }
+
+  public synchronized void stop() {
+    if (sampler != null) {
+      sampler.interrupt();
+      sampler = null;
+    }
+  }
+
+  /**
+   * @return a copy of the histogram of each handler, values are in nanoseconds
+   */
+  public Map<String, Histogram> histograms() {
+    Map<String, Histogram> copy = new HashMap<>();
+    histograms.forEach((handler, histogram) -> {
+      synchronized (histogram) {
+        copy.put(handler, histogram.copy());
+      }
+    });
+    return copy;
+  }
+
+  /**
+   * @return the count and percentiles in milliseconds of each handler
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    histograms().forEach((handler, histogram) -> json.put(handler, new JsonObject()
+        .put("count", histogram.getTotalCount())
+        .put("p50", histogram.getValueAtPercentile(50) / 1_000_000D)
+        .put("p99", histogram.getValueAtPercentile(99) / 1_000_000D)
+        .put("p999", histogram.getValueAtPercentile(99.9) / 1_000_000D)
+        .put("max", histogram.getMaxValue() / 1_000_000D)));
+    return json;
+  }
+
+  private void run() {
+    Thread current = Thread.currentThread();
+    while (!current.isInterrupted()) {
+      long now = System.nanoTime();
+      threads.forEach((id, thread) -> {
+        if (!thread.thread.isAlive()) {
+          thread.observe(null, now);
+          threads.remove(id);
+        } else if (thread.hasTasks) {
+          thread.observeTask(now);
+        } else {
+          thread.observe(handlerOf(stackOf(id)), now);
+        }
+      });
+      LockSupport.parkNanos(intervalNanos);
+    }
+  }
+
+  private StackTraceElement[] stackOf(long id) {
+    ThreadInfo info = threadMXBean.getThreadInfo(id, maxDepth);
+    return info != null ? info.getStackTrace() : new StackTraceElement[0];
+  }
+
+  private void record(String handler, long durationNanos) {
+    Histogram histogram = histograms.computeIfAbsent(handler, h -> new Histogram(TimeUnit.HOURS.toNanos(1), 3));
+    synchronized (histogram) {
+      histogram.recordValue(Math.min(durationNanos, histogram.getHighestTrackableValue()));
+    }
+  }
+
+  static String handlerOf(StackTraceElement[] stack) {
+    for (int i = stack.length - 1;i >= 0;i--) {
+      StackTraceElement frame = stack[i];
+      String className = frame.getClassName();
+      if (!isFramework(className) && !className.contains("$$Lambda$")) {
+        return className + "." + frame.getMethodName();
+      }
+    }
+    return null;
+  }
+
+  private static boolean isFramework(String className) {
+    for (String pkg : FRAMEWORK_PACKAGES) {
+      if (className.startsWith(pkg)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Method startTimeMethod() {
+    try {
+      Method method = Class.forName("io.vertx.core.impl.VertxThread").getMethod("startTime");
+      method.setAccessible(true);
+      return method;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  private class SampledThread {
+
+    final Thread thread;
+    final boolean hasTasks;
+    String handler;
+    long start;
+
+    SampledThread(Thread thread) {
+      this.thread = thread;
+      this.hasTasks = START_TIME != null && START_TIME.getDeclaringClass().isInstance(thread);
+    }
+
+    /**
+     * Observe the task of a Vert.x thread, the start time is 0 when the thread is not running a task.
+     */
+    void observeTask(long now) {
+      long taskStart;
+      try {
+        taskStart = (Long) START_TIME.invoke(thread);
+      } catch (Exception e) {
+        return;
+      }
+      if (handler != null && taskStart != start) {
+        record(handler, now - start);
+        handler = null;
+      }
+      if (handler == null && taskStart != 0 && now - taskStart >= thresholdNanos) {
+        String observed = handlerOf(stackOf(thread.getId()));
+        if (observed != null) {
+          handler = observed;
+          start = taskStart;
+        }
+      }
+    }
+
+    void observe(String observed, long now) {
+      if (handler != null && !handler.equals(observed)) {
+        record(handler, now - start);
+        handler = null;
+      }
+      if (handler == null && observed != null) {
+        handler = observed;
+        start = now;
+      }
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes blocking code emitting a sequence of chunks and delivers them on the calling context as a
+ * {@link ReadStream}, like {@code vertx.executeBlocking} does for a single result.
+ *
+ * The chunks are buffered up to a capacity, the blocking code waits in {@link Emitter#emit(Object)} when the buffer
+ * is full: a paused stream stops the blocking code instead of accumulating the whole result in memory. The end
+ * handler is called when the blocking code returns, the exception handler is called instead when it throws.
+ *
+ * The blocking code holds a worker thread while it waits, a stream paused and never resumed must be
+ * {@link #cancel() cancelled} to release it. With an emit timeout, the stream is cancelled and fails when the
+ * blocking code waits for longer than the timeout to emit a chunk.
+ *
+ * The blocking code is executed on the worker pool and is not ordered with the other blocking code of the context.
+ * The stream is bound to the context that created it and must only be used from this context.
+ */
+public class BlockingReadStream<T> implements ReadStream<T> {
+
+  /**
+   * Emits the chunks of the stream from the blocking code.
+   */
+  public interface Emitter<T> {
+
+    /**
+     * Emit a chunk, waiting while the buffer of the stream is full.
+     *
+     * @return {@code false} when the stream is cancelled, the blocking code should stop
+     */
+    boolean emit(T chunk);
+
+  }
+
+  public static <T> BlockingReadStream<T> executeBlocking(Vertx vertx, int capacity, Handler<Emitter<T>> blockingCodeHandler) {
+    return executeBlocking(vertx, capacity, 0, TimeUnit.MILLISECONDS, blockingCodeHandler);
+  }
+
+  /**
+   * Like {@link #executeBlocking(Vertx, int, Handler)}, the stream is cancelled and fails when the blocking code waits
+   * for longer than the {@code emitTimeout} to emit a chunk, a timeout of {@code 0} waits forever.
+   */
+  public static <T> BlockingReadStream<T> executeBlocking(Vertx vertx, int capacity, long emitTimeout, TimeUnit unit,
+                                                          Handler<Emitter<T>> blockingCodeHandler) {
+    BlockingReadStream<T> stream = new BlockingReadStream<>(vertx, capacity, unit.toNanos(emitTimeout));
+    vertx.<Void>executeBlocking(future -> {
+      blockingCodeHandler.handle(stream::emit);
+      future.complete();
+    }, false, ar -> stream.done(ar.cause()));
+    return stream;
+  }
+
+  private final Context context;
+  private final int capacity;
+  private final long emitTimeout;
+  private final ArrayDeque<T> buffer;
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+  private boolean paused;
+  private boolean drainScheduled;
+  private boolean done;
+  private Throwable failure;
+  private volatile boolean cancelled;
+
+  private BlockingReadStream(Vertx vertx, int capacity, long emitTimeout) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be > 0");
+    }
+    if (emitTimeout < 0) {
+      throw new IllegalArgumentException("Emit timeout must be >= 0");
+    }
+    this.context = vertx.getOrCreateContext();
+    this.capacity = capacity;
+    this.emitTimeout = emitTimeout;
+    this.buffer = new ArrayDeque<>(capacity);
+  }
+
+  @Override
+  public BlockingReadStream<T> handler(Handler<T> handler) {
+    checkContext();
+    this.handler = handler;
+    drain();
+    return this;
+  }
+
+  @Override
+  public BlockingReadStream<T> endHandler(Handler<Void> handler) {
+    this.endHandler = handler;
+    return this;
+  }
+
+  @Override
+  public BlockingReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public BlockingReadStream<T> pause() {
+    checkContext();
+    paused = true;
+    return this;
+  }
+
+  @Override
+  public BlockingReadStream<T> resume() {
+    checkContext();
+    paused = false;
+    drain();
+    return this;
+  }
+
+  /**
+   * Cancel the stream, the chunks emitted afterwards are discarded and the end handler is not called.
+   */
+  public void cancel() {
+    cancelled = true;
+    synchronized (buffer) {
+      buffer.clear();
+      buffer.notifyAll();
+    }
+  }
+
+  private boolean emit(T chunk) {
+    synchronized (buffer) {
+      long deadline = System.nanoTime() + emitTimeout;
+      while (buffer.size() >= capacity && !cancelled) {
+        try {
+          if (emitTimeout == 0) {
+            buffer.wait();
+          } else {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+              timeout();
+              return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(buffer, remaining);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+      if (cancelled) {
+        return false;
+      }
+      buffer.add(chunk);
+    }
+    scheduleDrain();
+    return true;
+  }
+
+  private void timeout() {
+    cancelled = true;
+    buffer.clear();
+    VertxException failure = new VertxException("Stream paused for more than " +
+        TimeUnit.NANOSECONDS.toMillis(emitTimeout) + " ms");
+    context.runOnContext(v -> {
+      if (exceptionHandler != null) {
+        exceptionHandler.handle(failure);
+      }
+    });
+  }
+
+  private void scheduleDrain() {
+    synchronized (buffer) {
+      if (drainScheduled) {
+        return;
+      }
+      drainScheduled = true;
+    }
+    context.runOnContext(v -> {
+      synchronized (buffer) {
+        drainScheduled = false;
+      }
+      drain();
+    });
+  }
+
+  private void done(Throwable cause) {
+    done = true;
+    failure = cause;
+    drain();
+  }
+
+  private void drain() {
+    while (!paused && handler != null && !cancelled) {
+      T chunk;
+      synchronized (buffer) {
+        chunk = buffer.poll();
+        if (chunk == null) {
+          break;
+        }
+        buffer.notifyAll();
+      }
+      handler.handle(chunk);
+    }
+    if (done && !cancelled) {
+      boolean empty;
+      synchronized (buffer) {
+        empty = buffer.isEmpty();
+      }
+      if (empty && (failure != null || !paused)) {
+        // Call the handler only once
+        done = false;
+        if (failure != null) {
+          if (exceptionHandler != null) {
+            exceptionHandler.handle(failure);
+          }
+        } else if (endHandler != null) {
+          endHandler.handle(null);
+        }
+      }
+    }
+  }
+
+  private void checkContext() {
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("Must be used from the context that created it");
+    }
+  }
+}
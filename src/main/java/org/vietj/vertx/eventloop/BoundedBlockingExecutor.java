@@ -0,0 +1,82 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * Executes blocking code in parallel with {@code executeBlocking(blockingCodeHandler, false, resultHandler)} while
+ * limiting the number of blocking tasks in flight for a context.
+ *
+ * The executor is bound to the context that created it and must only be used from this context. Like a
+ * {@code WriteStream}, {@link #isFull()} signals when the limit is reached and the {@link #drainHandler(Handler)}
+ * is called when half of the tasks in flight are completed. A task executed when the executor is full is not
+ * queued, its result handler is failed.
+ */
+public class BoundedBlockingExecutor {
+
+  private final Vertx vertx;
+  private final Context context;
+  private final int maxConcurrency;
+  private int inFlight;
+  private Handler<Void> drainHandler;
+
+  public BoundedBlockingExecutor(Vertx vertx, int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public <T> void executeBlocking(Handler<Future<T>> blockingCodeHandler, Handler<AsyncResult<T>> resultHandler) {
+    checkContext();
+    if (inFlight >= maxConcurrency) {
+      resultHandler.handle(Future.failedFuture(new IllegalStateException("Too many blocking tasks in flight: " + inFlight)));
+      return;
+    }
+    inFlight++;
+    vertx.executeBlocking(blockingCodeHandler, false, ar -> {
+      inFlight--;
+      try {
+        resultHandler.handle(ar);
+      } finally {
+        if (drainHandler != null && inFlight <= maxConcurrency / 2) {
+          Handler<Void> handler = drainHandler;
+          drainHandler = null;
+          handler.handle(null);
+        }
+      }
+    });
+  }
+
+  public boolean isFull() {
+    checkContext();
+    return inFlight >= maxConcurrency;
+  }
+
+  /**
+   * @return the number of blocking tasks in flight
+   */
+  public int inFlight() {
+    return inFlight;
+  }
+
+  /**
+   * Set an handler called once when the executor can accept blocking tasks again.
+   */
+  public BoundedBlockingExecutor drainHandler(Handler<Void> handler) {
+    checkContext();
+    drainHandler = handler;
+    return this;
+  }
+
+  private void checkContext() {
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("Must be used from the context that created it");
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class ComparingServerTopologies {
+
+  private static Handler<HttpServerRequest> requestHandler = req -> req.response().end("Hello");
+
+  public static void main(String[] args) throws Exception {
+    Vertx vertx = oneContext();
+    System.out.println("One context " + load().encodePrettily());
+    close(vertx);
+    vertx = manyContexts();
+    System.out.println("Many contexts " + load().encodePrettily());
+    close(vertx);
+  }
+
+  private static Vertx oneContext() throws Exception {
+    // The servers use the same context
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(4));
+    CompletableFuture<Vertx> listening = new CompletableFuture<>();
+    AtomicInteger count = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      for (int i = 0;i < 4;i++) {
+        vertx.createHttpServer(new HttpServerOptions().setPort(8080)).requestHandler(requestHandler).listen(ar -> {
+          if (ar.failed()) {
+            listening.completeExceptionally(ar.cause());
+          } else if (count.incrementAndGet() == 4) {
+            listening.complete(vertx);
+          }
+        });
+      }
+    });
+    return listening.get();
+  }
+
+  private static Vertx manyContexts() throws Exception {
+    // The servers use distinct event loops
+    CompletableFuture<Vertx> listening = new CompletableFuture<>();
+    new HttpServerLauncher().setPort(8080).setInstances(4).launch(requestHandler, ar -> {
+      if (ar.succeeded()) {
+        listening.complete(ar.result().vertx());
+      } else {
+        listening.completeExceptionally(ar.cause());
+      }
+    });
+    return listening.get();
+  }
+
+  private static JsonObject load() throws Exception {
+    Vertx vertx = Vertx.vertx();
+    CompletableFuture<JsonObject> report = new CompletableFuture<>();
+    new HttpLoadGenerator(vertx).setConnections(32).setDuration(3000).run(report::complete);
+    try {
+      return report.get();
+    } finally {
+      close(vertx);
+    }
+  }
+
+  private static void close(Vertx vertx) throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(ar -> closed.complete(null));
+    closed.get();
+  }
+}
@@ -0,0 +1,49 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class CompletingOnContext extends AbstractVerticle {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new CompletingOnContext());
+  }
+
+  private int numberOfFiles;
+
+  public void start() throws Exception {
+    Executor executor = ContextExecutor.direct(context);
+
+    System.out.println("Running with context : " + Vertx.currentContext());
+
+    // Our blocking action in the common pool
+    CompletableFuture
+        .supplyAsync(() -> {
+          // No context here!
+          System.out.println("Current context : " + Vertx.currentContext());
+          return getNumberOfFiles();
+        })
+        .thenAcceptAsync(n -> {
+          // Runs on the same context
+          System.out.println("Runs on the original context : " + Vertx.currentContext());
+          numberOfFiles = n;
+        }, executor)
+        .thenRunAsync(() -> {
+          // Still on the context without another task
+          System.out.println("Runs directly on the original context : " + Vertx.currentContext());
+        }, executor);
+  }
+
+  private int getNumberOfFiles() {
+    return 10; // Assuming this block
+  }
+}
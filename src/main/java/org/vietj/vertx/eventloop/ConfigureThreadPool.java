@@ -3,6 +3,8 @@ package org.vietj.vertx.eventloop;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
@@ -15,4 +17,17 @@ public class ConfigureThreadPool {
   public static void worker() {
     Vertx vertx = Vertx.vertx(new VertxOptions().setWorkerPoolSize(10));
   }
+
+  public static void adaptiveWorker() {
+    Vertx vertx = Vertx.vertx();
+    AdaptiveWorkerExecutor executor = new AdaptiveWorkerExecutor(2, 100, 5, TimeUnit.MILLISECONDS);
+    executor.<String>executeBlocking(vertx, future -> {
+      // Blocking code
+      future.complete(Thread.currentThread().getName());
+    }, ar -> {
+      System.out.println("Executed by " + ar.result());
+      executor.close();
+      vertx.close();
+    });
+  }
 }
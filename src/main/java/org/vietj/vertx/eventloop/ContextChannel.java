@@ -0,0 +1,118 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hands off events from any threads to a context through a bounded ring buffer, the handler is called on the
+ * context for each event.
+ *
+ * Calling {@code context.runOnContext} for each event allocates a handler and a task, and schedules a task on the
+ * context for each event. The channel stores the events in a preallocated array and schedules a single drain task
+ * when the context is not already draining, the drain task handles the events in batches of at most
+ * {@code maxBatchSize} so the other tasks of the context are not starved.
+ *
+ * Several threads can offer events, the producers claim a slot with a compare and swap on the producer index, the
+ * context is the single consumer and publishes the consumer index with ordered writes.
+ */
+public class ContextChannel<T> {
+
+  private final Context context;
+  private final Handler<T> handler;
+  private final int maxBatchSize;
+  private final int mask;
+  private final AtomicReferenceArray<T> buffer;
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final Handler<Void> drainTask = v -> drain();
+  private volatile long consumerIndexCache;
+
+  public ContextChannel(Context context, int capacity, Handler<T> handler) {
+    this(context, capacity, 1024, handler);
+  }
+
+  public ContextChannel(Context context, int capacity, int maxBatchSize, Handler<T> handler) {
+    if (Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of 2");
+    }
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Max batch size must be > 0");
+    }
+    this.context = context;
+    this.handler = handler;
+    this.maxBatchSize = maxBatchSize;
+    this.mask = capacity - 1;
+    this.buffer = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Offer an event to the context.
+   *
+   * @return {@code false} when the buffer is full, the event is then not handed off
+   */
+  public boolean offer(T event) {
+    if (event == null) {
+      throw new NullPointerException();
+    }
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndexCache > mask) {
+        consumerIndexCache = consumerIndex.get();
+        if (index - consumerIndexCache > mask) {
+          return false;
+        }
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+    buffer.lazySet((int) index & mask, event);
+    if (!scheduled.get() && scheduled.compareAndSet(false, true)) {
+      context.runOnContext(drainTask);
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of events not yet handled
+   */
+  public int size() {
+    return (int) (producerIndex.get() - consumerIndex.get());
+  }
+
+  public int capacity() {
+    return mask + 1;
+  }
+
+  private void drain() {
+    long index = consumerIndex.get();
+    for (int i = 0;i < maxBatchSize;i++) {
+      int slot = (int) index & mask;
+      T event = buffer.get(slot);
+      if (event == null) {
+        if (index == producerIndex.get()) {
+          break;
+        }
+        // The slot is claimed but the event is not yet written
+        do {
+          event = buffer.get(slot);
+        } while (event == null);
+      }
+      buffer.lazySet(slot, null);
+      consumerIndex.lazySet(++index);
+      try {
+        handler.handle(event);
+      } catch (Throwable t) {
+        t.printStackTrace();
+      }
+    }
+    scheduled.set(false);
+    // Events offered after the last check or beyond the batch
+    if (index != producerIndex.get() && scheduled.compareAndSet(false, true)) {
+      context.runOnContext(drainTask);
+    }
+  }
+}
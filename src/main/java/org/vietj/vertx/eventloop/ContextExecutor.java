@@ -0,0 +1,121 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@code ExecutorService} running its tasks on a context, so the stages of a {@code CompletableFuture} or the
+ * callbacks of a library accepting an executor run on the context that uses them.
+ *
+ * The {@link #of(Context)} executor schedules each task on the context. The {@link #direct(Context)} executor runs
+ * the task immediately when it is called from the context thread and schedules it otherwise, a stage completed on
+ * the context then runs its dependent stages without another hop through the context task queue. The tasks of a
+ * direct executor can run before the tasks already scheduled on the context. A task executed from a task running
+ * directly nests in its stack, after {@link #MAX_DEPTH} nested tasks the task is scheduled on the context instead,
+ * so a long chain of stages does not overflow the stack.
+ *
+ * Shutting down the executor rejects the new tasks, the tasks already scheduled are executed since they can not
+ * be removed from the context.
+ */
+public class ContextExecutor extends AbstractExecutorService {
+
+  public static final int MAX_DEPTH = 16;
+
+  public static ContextExecutor of(Context context) {
+    return new ContextExecutor(context, false);
+  }
+
+  public static ContextExecutor direct(Context context) {
+    return new ContextExecutor(context, true);
+  }
+
+  private final Context context;
+  private final boolean direct;
+  private final AtomicInteger pending = new AtomicInteger();
+  private volatile boolean shutdown;
+  // Only used from the context
+  private int depth;
+
+  private ContextExecutor(Context context, boolean direct) {
+    this.context = context;
+    this.direct = direct;
+  }
+
+  public Context context() {
+    return context;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor is shut down");
+    }
+    pending.incrementAndGet();
+    if (direct && depth < MAX_DEPTH && Vertx.currentContext() == context) {
+      depth++;
+      try {
+        run(command);
+      } finally {
+        depth--;
+      }
+    } else {
+      context.runOnContext(v -> run(command));
+    }
+  }
+
+  private void run(Runnable command) {
+    try {
+      command.run();
+    } catch (Throwable t) {
+      t.printStackTrace();
+    } finally {
+      if (pending.decrementAndGet() == 0 && shutdown) {
+        synchronized (this) {
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void shutdown() {
+    shutdown = true;
+    notifyAll();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && pending.get() == 0;
+  }
+
+  @Override
+  public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!isTerminated()) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+}
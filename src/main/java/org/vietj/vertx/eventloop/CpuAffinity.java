@@ -0,0 +1,240 @@
+package org.vietj.vertx.eventloop;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Pins the event loop and the worker threads of a Vertx instance to sets of CPUs, so the hot event loops keep
+ * their caches instead of migrating across cores and the blocking workers do not compete with them.
+ *
+ * The JDK does not expose {@code sched_setaffinity}, a thread pins itself by running {@code taskset} on its own
+ * Linux thread id read from {@code /proc/thread-self}. Pinning is only supported on Linux with {@code taskset}
+ * installed, see {@link #isSupported()}.
+ *
+ * The worker pool threads are created lazily, {@link #pinWorkers} replaces the thread factory of the pool so each new
+ * worker thread pins itself to the worker CPUs once when it starts, it must be called before the first blocking task
+ * is executed. The event loop threads are created by Vert.x with its own thread factory when the Vertx instance is
+ * created and Netty starts each of them with its first task, their factory can not be replaced. {@link #pinEventLoops}
+ * executes a task on each event loop, starting its thread if needed, the task only reads the thread id and the
+ * {@code taskset} process pinning the thread runs on a worker so the event loop is not blocked. The event loop
+ * {@code i} is pinned to the CPU {@code cpus[i % cpus.length]}.
+ */
+public class CpuAffinity {
+
+  private static final Logger log = LoggerFactory.getLogger(CpuAffinity.class);
+  private static final File THREAD_SELF = new File("/proc/thread-self");
+  private static final File[] TASKSET = { new File("/usr/bin/taskset"), new File("/bin/taskset") };
+
+  /**
+   * @return true when the threads can be pinned
+   */
+  public static boolean isSupported() {
+    return taskset() != null && THREAD_SELF.exists();
+  }
+
+  /**
+   * @return the CPUs the current process is allowed to run on
+   */
+  public static int[] availableCpus() {
+    String list = status(new File("/proc/self/status"));
+    if (list == null) {
+      return IntStream.range(0, Runtime.getRuntime().availableProcessors()).toArray();
+    }
+    List<Integer> cpus = new ArrayList<>();
+    for (String range : list.split(",")) {
+      int dash = range.indexOf('-');
+      int from = Integer.parseInt(range.substring(0, dash == -1 ? range.length() : dash));
+      int to = dash == -1 ? from : Integer.parseInt(range.substring(dash + 1));
+      for (int cpu = from;cpu <= to;cpu++) {
+        cpus.add(cpu);
+      }
+    }
+    return cpus.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * @return the CPUs the current thread is allowed to run on, e.g {@code 0-3,6} or {@code null} when unknown
+   */
+  public static String currentAffinity() {
+    return status(new File(THREAD_SELF, "status"));
+  }
+
+  /**
+   * Pin the current thread to the {@code cpus}.
+   *
+   * @throws IllegalStateException when the thread cannot be pinned
+   */
+  public static void pin(int... cpus) {
+    pin(threadId(), cpus);
+  }
+
+  private static String threadId() {
+    if (!isSupported()) {
+      throw new IllegalStateException("CPU affinity is not supported on this platform");
+    }
+    try {
+      // /proc/thread-self links to /proc/<pid>/task/<tid>
+      return THREAD_SELF.getCanonicalFile().getName();
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read the thread id", e);
+    }
+  }
+
+  private static void pin(String tid, int... cpus) {
+    if (cpus.length == 0) {
+      throw new IllegalArgumentException("No CPUs");
+    }
+    File taskset = taskset();
+    if (taskset == null) {
+      throw new IllegalStateException("CPU affinity is not supported on this platform");
+    }
+    String list = IntStream.of(cpus).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    try {
+      Process process = new ProcessBuilder(taskset.getPath(), "-p", "-c", list, tid).redirectErrorStream(true).start();
+      String output = read(process.getInputStream());
+      if (process.waitFor() != 0) {
+        throw new IllegalStateException("Could not pin thread " + tid + " to CPUs " + list + ": " + output.trim());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not pin thread " + tid + " to CPUs " + list, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while pinning the thread to CPUs " + list, e);
+    }
+  }
+
+  /**
+   * Wrap a thread factory so the threads it creates pin themselves to the {@code cpus} before running. A thread
+   * failing to pin itself logs the failure and runs unpinned.
+   */
+  public static ThreadFactory threadFactory(ThreadFactory factory, int... cpus) {
+    int[] copy = cpus.clone();
+    return runnable -> factory.newThread(() -> {
+      try {
+        pin(copy);
+      } catch (IllegalStateException e) {
+        log.error("Thread " + Thread.currentThread().getName() + " runs unpinned", e);
+      }
+      runnable.run();
+    });
+  }
+
+  /**
+   * Pin the event loop threads of {@code vertx} to the {@code cpus}, the event loops are assigned to the CPUs in
+   * round robin. The handler is called on the caller context when all the event loops are pinned.
+   *
+   * The pinning runs on the worker pool, pin the workers first so this does not create unpinned workers.
+   */
+  public static void pinEventLoops(Vertx vertx, int[] cpus, Handler<AsyncResult<Void>> handler) {
+    if (cpus.length == 0) {
+      throw new IllegalArgumentException("No CPUs");
+    }
+    Context caller = vertx.getOrCreateContext();
+    List<EventExecutor> eventLoops = new ArrayList<>();
+    for (EventExecutor eventLoop : vertx.nettyEventLoopGroup()) {
+      eventLoops.add(eventLoop);
+    }
+    AtomicInteger pending = new AtomicInteger(eventLoops.size());
+    AtomicInteger failed = new AtomicInteger();
+    Handler<AsyncResult<Void>> done = result -> {
+      if (result.failed()) {
+        // Report the first failure only
+        if (failed.getAndIncrement() == 0) {
+          caller.runOnContext(v -> handler.handle(result));
+        }
+      } else if (pending.decrementAndGet() == 0 && failed.get() == 0) {
+        caller.runOnContext(v -> handler.handle(Future.succeededFuture()));
+      }
+    };
+    for (int i = 0;i < eventLoops.size();i++) {
+      int cpu = cpus[i % cpus.length];
+      eventLoops.get(i).execute(() -> {
+        String tid;
+        try {
+          tid = threadId();
+        } catch (Exception e) {
+          done.handle(Future.failedFuture(e));
+          return;
+        }
+        // Wait for taskset on a worker instead of the event loop
+        caller.runOnContext(v -> vertx.<Void>executeBlocking(fut -> {
+          pin(tid, cpu);
+          fut.complete();
+        }, false, done));
+      });
+    }
+  }
+
+  /**
+   * Pin the worker threads of {@code vertx} to the {@code cpus}. The worker threads already started are not
+   * pinned, so this must be called before executing blocking code or deploying worker verticles.
+   *
+   * @throws IllegalStateException when the worker pool does not allow to change its thread factory
+   */
+  public static void pinWorkers(Vertx vertx, int... cpus) {
+    if (cpus.length == 0) {
+      throw new IllegalArgumentException("No CPUs");
+    }
+    ExecutorService pool = ((VertxInternal) vertx).getWorkerPool();
+    if (!(pool instanceof ThreadPoolExecutor)) {
+      throw new IllegalStateException("Cannot pin the workers of " + pool.getClass().getName());
+    }
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+    executor.setThreadFactory(threadFactory(executor.getThreadFactory(), cpus));
+  }
+
+  private static File taskset() {
+    if (!System.getProperty("os.name", "").toLowerCase().contains("linux")) {
+      return null;
+    }
+    for (File file : TASKSET) {
+      if (file.canExecute()) {
+        return file;
+      }
+    }
+    return null;
+  }
+
+  private static String status(File file) {
+    try {
+      for (String line : Files.readAllLines(file.toPath())) {
+        if (line.startsWith("Cpus_allowed_list:")) {
+          return line.substring("Cpus_allowed_list:".length()).trim();
+        }
+      }
+    } catch (IOException ignore) {
+    }
+    return null;
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[256];
+    int len;
+    while ((len = in.read(buffer)) != -1) {
+      out.write(buffer, 0, len);
+    }
+    return out.toString();
+  }
+}
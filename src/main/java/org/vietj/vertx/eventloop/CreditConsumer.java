@@ -0,0 +1,213 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An event bus consumer with a bounded inbox granting credits to the {@link CreditSender} sending to its address,
+ * a sender sends a message only when it has a credit, so the number of messages queued for the consumer can not
+ * exceed its capacity.
+ *
+ * The handler is called with one message per task of the context. The credit of a processed message is given
+ * back to its sender when this sender has queued messages, otherwise it is granted to the next sender requesting
+ * credits. When several consumers are registered on the same address, the credits granted by a consumer can be
+ * used for another one, the number of queued messages is then bounded by the sum of the capacities.
+ *
+ * The messages sent with a credit are always accepted since their room was reserved by the grant. The messages
+ * sent without credits, for instance with {@code eventBus.send}, are accepted only in the room left by the granted
+ * credits and failed with {@link #INBOX_FULL} beyond.
+ *
+ * A sender closing gives its unused credits back. The credits granted to a sender that went away without closing
+ * are taken back when their delivery fails.
+ */
+public class CreditConsumer<T> {
+
+  public static final int INBOX_FULL = -2;
+
+  static final String CREDIT_ADDRESS = "credit-address";
+  static final String HAS_PENDING = "has-pending";
+  static final String RELEASE = "release";
+
+  public static <T> CreditConsumer<T> consumer(Vertx vertx, String address, int capacity, Handler<Message<T>> handler) {
+    return new CreditConsumer<>(vertx, address, capacity, handler);
+  }
+
+  private final Vertx vertx;
+  private final Context context;
+  private final int capacity;
+  private final Handler<Message<T>> handler;
+  private final ArrayDeque<Message<T>> inbox;
+  private final Set<String> waiting = new LinkedHashSet<>();
+  private final Map<String, Integer> grants = new HashMap<>();
+  private final MessageConsumer<T> consumer;
+  private final MessageConsumer<String> creditConsumer;
+  private int outstanding;
+  private int uncredited;
+  private boolean draining;
+  private boolean unregistered;
+  private int maxInboxSize;
+  private long rejected;
+
+  private CreditConsumer(Vertx vertx, String address, int capacity, Handler<Message<T>> handler) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.capacity = capacity;
+    this.handler = handler;
+    this.inbox = new ArrayDeque<>(capacity);
+    this.consumer = vertx.eventBus().consumer(address, this::receive);
+    this.creditConsumer = vertx.eventBus().consumer(address + ".credits", msg -> {
+      String released = msg.headers().get(RELEASE);
+      if (released != null) {
+        release(msg.body(), Integer.parseInt(released));
+      } else {
+        request(msg.body());
+      }
+      msg.reply(null);
+    });
+  }
+
+  /**
+   * @return the number of messages in the inbox
+   */
+  public int inboxSize() {
+    return inbox.size();
+  }
+
+  /**
+   * @return the highest number of messages the inbox had
+   */
+  public int maxInboxSize() {
+    return maxInboxSize;
+  }
+
+  /**
+   * @return the number of messages failed because the inbox was full
+   */
+  public long rejected() {
+    return rejected;
+  }
+
+  /**
+   * Unregister the consumer, the messages of the inbox are still handled but no more credits are granted.
+   */
+  public void unregister() {
+    unregistered = true;
+    consumer.unregister();
+    creditConsumer.unregister();
+  }
+
+  private void receive(Message<T> msg) {
+    if (msg.headers().get(CREDIT_ADDRESS) == null) {
+      // The outstanding credits include the credited messages of the inbox
+      if (uncredited + outstanding >= capacity) {
+        rejected++;
+        msg.fail(INBOX_FULL, "Inbox full");
+        return;
+      }
+      uncredited++;
+    }
+    inbox.add(msg);
+    maxInboxSize = Math.max(maxInboxSize, inbox.size());
+    if (!draining) {
+      draining = true;
+      context.runOnContext(v -> drain());
+    }
+  }
+
+  private void drain() {
+    Message<T> msg = inbox.poll();
+    if (msg == null) {
+      draining = false;
+      return;
+    }
+    try {
+      handler.handle(msg);
+    } catch (Throwable t) {
+      t.printStackTrace();
+    }
+    String sender = msg.headers().get(CREDIT_ADDRESS);
+    if (sender != null) {
+      outstanding--;
+      if (!waiting.isEmpty()) {
+        String next = waiting.iterator().next();
+        waiting.remove(next);
+        grant(next, 1);
+      } else if ("true".equals(msg.headers().get(HAS_PENDING))) {
+        grant(sender, 1);
+      }
+    } else {
+      uncredited--;
+      grantWaiting();
+    }
+    // Let the queued deliveries reach the inbox before the next message
+    context.runOnContext(v -> drain());
+  }
+
+  private void request(String sender) {
+    int available = capacity - outstanding - uncredited;
+    if (available > 0) {
+      grant(sender, Math.max(1, Math.min(available, capacity / 4)));
+    } else {
+      waiting.add(sender);
+    }
+  }
+
+  private void release(String sender, int credits) {
+    waiting.remove(sender);
+    Integer pending = grants.remove(sender);
+    if (pending != null) {
+      credits += pending;
+    }
+    // The credits may have been granted by another consumer of the address
+    outstanding = Math.max(0, outstanding - credits);
+    grantWaiting();
+  }
+
+  private void grantWaiting() {
+    while (!waiting.isEmpty() && capacity - outstanding - uncredited > 0) {
+      String next = waiting.iterator().next();
+      waiting.remove(next);
+      request(next);
+    }
+  }
+
+  private void grant(String sender, int credits) {
+    if (unregistered) {
+      return;
+    }
+    outstanding += credits;
+    if (grants.isEmpty()) {
+      // Send the credits granted during this task at once
+      context.runOnContext(v -> {
+        if (!unregistered) {
+          grants.forEach(this::sendGrant);
+        }
+        grants.clear();
+      });
+    }
+    grants.merge(sender, credits, Integer::sum);
+  }
+
+  private void sendGrant(String sender, int credits) {
+    vertx.eventBus().send(sender, credits, ar -> {
+      if (ar.failed() && ((ReplyException) ar.cause()).failureType() == ReplyFailure.NO_HANDLERS) {
+        // The sender went away without closing
+        release(sender, credits);
+      }
+    });
+  }
+}
@@ -0,0 +1,204 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.streams.WriteStream;
+
+import java.util.ArrayDeque;
+import java.util.UUID;
+
+/**
+ * Sends messages to a {@link CreditConsumer} address, a message is sent only when the sender has a credit
+ * granted by a consumer, otherwise it is queued until a credit is granted.
+ *
+ * When the queue is full, the {@link OverflowPolicy} of the sender applies. The sender is a {@link WriteStream}
+ * so it can be the destination of a {@code Pump} pausing the source stream when the queue is full.
+ *
+ * The sender is bound to the context that created it and must only be used from this context.
+ */
+public class CreditSender<T> implements WriteStream<T> {
+
+  public enum OverflowPolicy {
+
+    /**
+     * Drop the oldest queued message to queue the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Reject the new message, the exception handler is called.
+     */
+    REJECT,
+
+    /**
+     * Queue the message anyway, the writer should stop writing when {@link #writeQueueFull()} returns
+     * {@code true} and resume with the drain handler.
+     */
+    PAUSE
+  }
+
+  private static final long RETRY_DELAY = 100;
+
+  private final Vertx vertx;
+  private final Context context;
+  private final String address;
+  private final String creditAddress = UUID.randomUUID().toString();
+  private final OverflowPolicy policy;
+  private final MessageConsumer<Integer> creditConsumer;
+  private final ArrayDeque<T> queue = new ArrayDeque<>();
+  private int maxQueueSize;
+  private int credits;
+  private boolean requested;
+  private Handler<Void> drainHandler;
+  private Handler<Throwable> exceptionHandler;
+  private long sent;
+  private long dropped;
+  private long rejected;
+
+  public CreditSender(Vertx vertx, String address, int maxQueueSize, OverflowPolicy policy) {
+    if (maxQueueSize < 1) {
+      throw new IllegalArgumentException("Max queue size must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.address = address;
+    this.maxQueueSize = maxQueueSize;
+    this.policy = policy;
+    this.creditConsumer = vertx.eventBus().localConsumer(creditAddress, msg -> {
+      msg.reply(null);
+      granted(msg.body());
+    });
+    requestCredits();
+  }
+
+  @Override
+  public CreditSender<T> write(T body) {
+    checkContext();
+    if (credits > 0 && queue.isEmpty()) {
+      send(body);
+      return this;
+    }
+    if (queue.size() >= maxQueueSize) {
+      switch (policy) {
+        case DROP_OLDEST:
+          queue.poll();
+          dropped++;
+          break;
+        case REJECT:
+          rejected++;
+          if (exceptionHandler != null) {
+            exceptionHandler.handle(new VertxException("Send queue full"));
+          }
+          return this;
+        case PAUSE:
+          break;
+      }
+    }
+    queue.add(body);
+    requestCredits();
+    return this;
+  }
+
+  @Override
+  public CreditSender<T> setWriteQueueMaxSize(int maxSize) {
+    this.maxQueueSize = maxSize;
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return queue.size() >= maxQueueSize;
+  }
+
+  @Override
+  public CreditSender<T> drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    return this;
+  }
+
+  @Override
+  public CreditSender<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  /**
+   * @return the number of messages waiting for a credit
+   */
+  public int queueSize() {
+    return queue.size();
+  }
+
+  public long sent() {
+    return sent;
+  }
+
+  public long dropped() {
+    return dropped;
+  }
+
+  public long rejected() {
+    return rejected;
+  }
+
+  /**
+   * Close the sender, the queued messages are discarded and the unused credits are given back.
+   */
+  public void close() {
+    creditConsumer.unregister();
+    queue.clear();
+    if (credits > 0 || requested) {
+      // Also withdraw the pending request
+      DeliveryOptions options = new DeliveryOptions().addHeader(CreditConsumer.RELEASE, String.valueOf(credits));
+      credits = 0;
+      vertx.eventBus().send(address + ".credits", creditAddress, options);
+    }
+  }
+
+  private void granted(int amount) {
+    requested = false;
+    credits += amount;
+    while (credits > 0 && !queue.isEmpty()) {
+      send(queue.poll());
+    }
+    if (!queue.isEmpty()) {
+      requestCredits();
+    }
+    Handler<Void> handler = drainHandler;
+    if (handler != null && queue.size() <= maxQueueSize / 2) {
+      handler.handle(null);
+    }
+  }
+
+  private void send(T body) {
+    credits--;
+    sent++;
+    DeliveryOptions options = new DeliveryOptions()
+        .addHeader(CreditConsumer.CREDIT_ADDRESS, creditAddress)
+        .addHeader(CreditConsumer.HAS_PENDING, String.valueOf(!queue.isEmpty()));
+    vertx.eventBus().send(address, body, options);
+  }
+
+  private void requestCredits() {
+    if (!requested && credits == 0) {
+      requested = true;
+      vertx.eventBus().send(address + ".credits", creditAddress, ar -> {
+        if (ar.failed()) {
+          // No consumer yet
+          requested = false;
+          vertx.setTimer(RETRY_DELAY, id -> requestCredits());
+        }
+      });
+    }
+  }
+
+  private void checkContext() {
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("Must be used from the context that created it");
+    }
+  }
+}
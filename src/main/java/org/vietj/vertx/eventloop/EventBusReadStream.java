@@ -0,0 +1,213 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link ReadStream} of the messages sent to an address by {@link CreditSender}, the stream grants credits to
+ * the senders according to the demand of its reader so the senders queue their messages or pause their own
+ * source instead of piling them on the event bus.
+ *
+ * The demand is signalled with {@link #request(long)} like a reactive streams subscription, or with
+ * {@link #pause()} and {@link #resume()} so the stream can be pumped to a {@code WriteStream}. At most
+ * {@code prefetch} credits are granted ahead of the demand, the messages received while the stream is paused are
+ * buffered, there are at most as many of them as granted credits.
+ *
+ * The messages sent without credits are buffered up to {@code prefetch} messages and failed with
+ * {@link CreditConsumer#INBOX_FULL} beyond. The unused credits of the senders that close or go away are taken back
+ * like with {@link CreditConsumer}.
+ *
+ * The stream is bound to the context that created it and must only be used from this context.
+ */
+public class EventBusReadStream<T> implements ReadStream<T> {
+
+  private final Vertx vertx;
+  private final Context context;
+  private final int prefetch;
+  private final ArrayDeque<Message<T>> buffer = new ArrayDeque<>();
+  private final Set<String> waiting = new LinkedHashSet<>();
+  private final Map<String, Integer> grants = new HashMap<>();
+  private final MessageConsumer<T> consumer;
+  private final MessageConsumer<String> creditConsumer;
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+  private long demand;
+  private int outstanding;
+
+  public EventBusReadStream(Vertx vertx, String address, int prefetch) {
+    if (prefetch < 1) {
+      throw new IllegalArgumentException("Prefetch must be > 0");
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.prefetch = prefetch;
+    this.consumer = vertx.eventBus().consumer(address, this::receive);
+    this.creditConsumer = vertx.eventBus().consumer(address + ".credits", msg -> {
+      String released = msg.headers().get(CreditConsumer.RELEASE);
+      if (released != null) {
+        release(msg.body(), Integer.parseInt(released));
+      } else {
+        waiting.add(msg.body());
+      }
+      msg.reply(null);
+      grantCredits();
+    });
+  }
+
+  @Override
+  public EventBusReadStream<T> handler(Handler<T> handler) {
+    checkContext();
+    this.handler = handler;
+    return this;
+  }
+
+  @Override
+  public EventBusReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public EventBusReadStream<T> endHandler(Handler<Void> handler) {
+    this.endHandler = handler;
+    return this;
+  }
+
+  /**
+   * Signal the demand of {@code n} more messages.
+   */
+  public EventBusReadStream<T> request(long n) {
+    checkContext();
+    if (n <= 0) {
+      throw new IllegalArgumentException("Demand must be > 0");
+    }
+    demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+    deliverBuffered();
+    grantCredits();
+    return this;
+  }
+
+  @Override
+  public EventBusReadStream<T> pause() {
+    checkContext();
+    demand = 0;
+    return this;
+  }
+
+  @Override
+  public EventBusReadStream<T> resume() {
+    return request(Long.MAX_VALUE);
+  }
+
+  /**
+   * @return the number of messages received and not yet delivered to the handler
+   */
+  public int buffered() {
+    return buffer.size();
+  }
+
+  /**
+   * Unregister the stream, the end handler is called.
+   */
+  public void close() {
+    consumer.unregister();
+    creditConsumer.unregister();
+    Handler<Void> handler = endHandler;
+    if (handler != null) {
+      handler.handle(null);
+    }
+  }
+
+  private void receive(Message<T> msg) {
+    String sender = msg.headers().get(CreditConsumer.CREDIT_ADDRESS);
+    if (sender != null) {
+      outstanding--;
+      if ("true".equals(msg.headers().get(CreditConsumer.HAS_PENDING))) {
+        waiting.add(sender);
+      }
+    } else if (buffer.size() >= prefetch) {
+      msg.fail(CreditConsumer.INBOX_FULL, "Inbox full");
+      return;
+    }
+    buffer.add(msg);
+    deliverBuffered();
+    grantCredits();
+  }
+
+  private void deliverBuffered() {
+    Message<T> msg;
+    while (demand > 0 && handler != null && (msg = buffer.poll()) != null) {
+      if (demand != Long.MAX_VALUE) {
+        demand--;
+      }
+      try {
+        handler.handle(msg.body());
+      } catch (Throwable t) {
+        Handler<Throwable> handler = exceptionHandler;
+        if (handler != null) {
+          handler.handle(t);
+        } else {
+          t.printStackTrace();
+        }
+      }
+    }
+  }
+
+  private void grantCredits() {
+    // Grant at most the demand not covered by the buffered messages and the credits already granted
+    long available = Math.min(demand, prefetch) - buffer.size() - outstanding;
+    while (available > 0 && !waiting.isEmpty()) {
+      String sender = waiting.iterator().next();
+      waiting.remove(sender);
+      int credits = (int) Math.max(1, available / (waiting.size() + 1));
+      available -= credits;
+      outstanding += credits;
+      if (grants.isEmpty()) {
+        // Send the credits granted during this task at once
+        context.runOnContext(v -> {
+          grants.forEach(this::sendGrant);
+          grants.clear();
+        });
+      }
+      grants.merge(sender, credits, Integer::sum);
+    }
+  }
+
+  private void sendGrant(String sender, int credits) {
+    vertx.eventBus().send(sender, credits, ar -> {
+      if (ar.failed() && ((ReplyException) ar.cause()).failureType() == ReplyFailure.NO_HANDLERS) {
+        // The sender went away without closing
+        release(sender, credits);
+        grantCredits();
+      }
+    });
+  }
+
+  private void release(String sender, int credits) {
+    waiting.remove(sender);
+    Integer pending = grants.remove(sender);
+    if (pending != null) {
+      credits += pending;
+    }
+    outstanding = Math.max(0, outstanding - credits);
+  }
+
+  private void checkContext() {
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("Must be used from the context that created it");
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package org.vietj.vertx.eventloop;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the scheduling lag and the pending task count of each event loop of a Vertx instance.
+ *
+ * At every interval a probe task is submitted to each event loop, just like {@code context.runOnContext} does,
+ * the lag is the time between the submission and the execution of the probe. A probe is not submitted to an
+ * event loop while the previous one is still pending, the lag is recorded with the expected interval so the
+ * histogram accounts for the probes that could not be submitted.
+ *
+ * Each event loop records its own lag in a {@link SingleWriterRecorder}, the metrics are aggregated when they
+ * are queried with {@link #toJson()} or with a message sent to the address given to {@link #start(String)}.
+ */
+public class EventLoopMonitor {
+
+  private final Vertx vertx;
+  private final long intervalNanos;
+  private final List<Loop> loops = new ArrayList<>();
+  private ScheduledExecutorService prober;
+  private MessageConsumer<Object> consumer;
+
+  public EventLoopMonitor(Vertx vertx, long interval, TimeUnit unit) {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("Interval must be > 0");
+    }
+    this.vertx = vertx;
+    this.intervalNanos = unit.toNanos(interval);
+    int index = 0;
+    for (EventExecutor executor : vertx.nettyEventLoopGroup()) {
+      loops.add(new Loop(index++, executor));
+    }
+  }
+
+  /**
+   * Start probing the event loops and reply the metrics to the messages sent to the {@code address}.
+   */
+  public synchronized EventLoopMonitor start(String address) {
+    if (prober == null) {
+      prober = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "vert.x-eventloop-monitor");
+        thread.setDaemon(true);
+        return thread;
+      });
+      prober.scheduleAtFixedRate(() -> loops.forEach(Loop::probe), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+      if (address != null) {
+        consumer = vertx.eventBus().consumer(address, msg -> msg.reply(toJson()));
+      }
+    }
+    return this;
+  }
+
+  public synchronized void stop() {
+    if (prober != null) {
+      prober.shutdownNow();
+      prober = null;
+      if (consumer != null) {
+        consumer.unregister();
+        consumer = null;
+      }
+    }
+  }
+
+  /**
+   * @return the lag percentiles in microseconds and the pending tasks of each event loop
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    for (Loop loop : loops) {
+      json.put(loop.name, loop.toJson());
+    }
+    return json;
+  }
+
+  private class Loop {
+
+    final EventExecutor executor;
+    final SingleWriterRecorder recorder = new SingleWriterRecorder(TimeUnit.MINUTES.toNanos(1), 3);
+    final Histogram accumulated = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+    final AtomicBoolean pending = new AtomicBoolean();
+    volatile String name;
+    volatile int pendingTasks;
+    volatile int maxPendingTasks;
+    Histogram interval;
+
+    Loop(int index, EventExecutor executor) {
+      this.executor = executor;
+      this.name = "eventloop-" + index;
+      executor.execute(() -> name = Thread.currentThread().getName());
+    }
+
+    void probe() {
+      if (executor instanceof SingleThreadEventExecutor) {
+        int tasks = ((SingleThreadEventExecutor) executor).pendingTasks();
+        pendingTasks = tasks;
+        if (tasks > maxPendingTasks) {
+          maxPendingTasks = tasks;
+        }
+      }
+      if (pending.compareAndSet(false, true)) {
+        long submitted = System.nanoTime();
+        executor.execute(() -> {
+          long lag = System.nanoTime() - submitted;
+          recorder.recordValueWithExpectedInterval(Math.min(lag, accumulated.getHighestTrackableValue()), intervalNanos);
+          pending.set(false);
+        });
+      }
+    }
+
+    synchronized JsonObject toJson() {
+      interval = recorder.getIntervalHistogram(interval);
+      accumulated.add(interval);
+      return new JsonObject()
+          .put("count", accumulated.getTotalCount())
+          .put("p50", accumulated.getValueAtPercentile(50) / 1000D)
+          .put("p99", accumulated.getValueAtPercentile(99) / 1000D)
+          .put("p999", accumulated.getValueAtPercentile(99.9) / 1000D)
+          .put("max", accumulated.getMaxValue() / 1000D)
+          .put("pendingTasks", pendingTasks)
+          .put("maxPendingTasks", maxPendingTasks);
+    }
+  }
+}
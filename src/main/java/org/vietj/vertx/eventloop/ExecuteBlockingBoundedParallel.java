@@ -0,0 +1,43 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class ExecuteBlockingBoundedParallel {
+
+  public static void main(String[] args) throws Exception {
+    new ExecuteBlockingBoundedParallel().execute(Vertx.vertx());
+  }
+
+  public void execute(Vertx vertx) {
+    vertx.runOnContext(v -> {
+      BoundedBlockingExecutor executor = new BoundedBlockingExecutor(vertx, 4);
+      submit(executor, 10);
+    });
+  }
+
+  private void submit(BoundedBlockingExecutor executor, int remaining) {
+    while (remaining > 0 && !executor.isFull()) {
+      int index = remaining--;
+      executor.<String>executeBlocking(future -> {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException ignore) {
+        }
+        future.complete("Task " + index + " computed with " + Thread.currentThread());
+      }, result -> {
+        // Back to the event loop
+        System.out.println(result.result());
+      });
+    }
+    if (remaining > 0) {
+      // Resume when half of the tasks in flight are done
+      int pending = remaining;
+      executor.drainHandler(v -> submit(executor, pending));
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class ExecuteBlockingStreaming {
+
+  public static void main(String[] args) throws Exception {
+    new ExecuteBlockingStreaming().execute(Vertx.vertx());
+  }
+
+  public void execute(Vertx vertx) {
+    vertx.runOnContext(v -> {
+
+      // On the event loop
+      System.out.println("Calling blocking block from " + Thread.currentThread());
+
+      Handler<BlockingReadStream.Emitter<String>> blockingCodeHandler = emitter -> {
+        // Non event loop
+        for (int i = 0;i < 5;i++) {
+          System.out.println("Emitting chunk " + i + " with " + Thread.currentThread());
+          if (!emitter.emit("chunk " + i)) {
+            break;
+          }
+        }
+      };
+
+      // Buffer at most 2 chunks
+      BlockingReadStream<String> stream = BlockingReadStream.executeBlocking(vertx, 2, blockingCodeHandler);
+      stream.pause();
+      stream.handler(chunk -> {
+        // Back to the event loop
+        System.out.println("Got " + chunk + " in " + Thread.currentThread());
+      });
+      stream.endHandler(v2 -> {
+        System.out.println("Done");
+        vertx.close();
+      });
+
+      // The blocking code waits until the stream is resumed
+      vertx.setTimer(100, id -> stream.resume());
+    });
+  }
+}
@@ -0,0 +1,166 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodic timers firing at a fixed rate: each firing is scheduled against the start time of the timer instead
+ * of the previous firing like {@code vertx.setPeriodic}, so the lateness of a firing does not accumulate.
+ *
+ * When a firing is late by more than a period, the ticks in between are missed and handled according to the
+ * {@link MissedTicks} policy of the timer. The lateness of each firing is recorded in a histogram per timer.
+ *
+ * The handlers are called on the context that scheduled the timer.
+ */
+public class FixedRateScheduler {
+
+  public enum MissedTicks {
+
+    /**
+     * Fire once for all the missed ticks, then continue at the next tick.
+     */
+    COALESCE,
+
+    /**
+     * Do not fire for the missed ticks, wait for the next tick.
+     */
+    SKIP,
+
+    /**
+     * Fire once for each missed tick in a burst, then continue at the next tick.
+     */
+    CATCH_UP
+  }
+
+  private final Vertx vertx;
+  private final AtomicLong nextId = new AtomicLong();
+  private final Map<Long, Periodic> timers = new ConcurrentHashMap<>();
+
+  public FixedRateScheduler(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  public long setPeriodic(long period, MissedTicks policy, Handler<Long> handler) {
+    if (period < 1) {
+      throw new IllegalArgumentException("Cannot schedule a timer with period < 1 ms");
+    }
+    Periodic periodic = new Periodic(nextId.getAndIncrement(), period, policy, handler);
+    timers.put(periodic.id, periodic);
+    vertx.getOrCreateContext().runOnContext(v -> periodic.schedule());
+    return periodic.id;
+  }
+
+  public boolean cancelTimer(long id) {
+    Periodic periodic = timers.remove(id);
+    if (periodic == null) {
+      return false;
+    }
+    periodic.cancelled = true;
+    vertx.cancelTimer(periodic.timerId);
+    return true;
+  }
+
+  /**
+   * @return the metrics of the timer or {@code null} when the timer does not exist
+   */
+  public JsonObject metrics(long id) {
+    Periodic periodic = timers.get(id);
+    return periodic != null ? periodic.toJson() : null;
+  }
+
+  /**
+   * @return the metrics of all the timers
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    timers.forEach((id, periodic) -> json.put(String.valueOf(id), periodic.toJson()));
+    return json;
+  }
+
+  private class Periodic {
+
+    final long id;
+    final long periodNanos;
+    final MissedTicks policy;
+    final Handler<Long> handler;
+    final long start = System.nanoTime();
+    final Histogram lateness = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
+    volatile boolean cancelled;
+    volatile long timerId;
+    long tick;
+    long fired;
+    long missed;
+
+    Periodic(long id, long period, MissedTicks policy, Handler<Long> handler) {
+      this.id = id;
+      this.periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+      this.policy = policy;
+      this.handler = handler;
+    }
+
+    void schedule() {
+      if (cancelled) {
+        return;
+      }
+      long delay = start + (tick + 1) * periodNanos - System.nanoTime();
+      timerId = vertx.setTimer(Math.max(1, (delay + 999_999) / 1_000_000), v -> fire());
+    }
+
+    void fire() {
+      if (cancelled) {
+        return;
+      }
+      long now = System.nanoTime();
+      tick++;
+      long late = now - (start + tick * periodNanos);
+      long missedTicks = Math.max(0, late / periodNanos);
+      synchronized (this) {
+        lateness.recordValue(Math.min(Math.max(0, late), lateness.getHighestTrackableValue()));
+        missed += missedTicks;
+      }
+      switch (policy) {
+        case COALESCE:
+          tick += missedTicks;
+          handle();
+          break;
+        case SKIP:
+          tick += missedTicks;
+          if (missedTicks == 0) {
+            handle();
+          }
+          break;
+        case CATCH_UP:
+          for (long i = 0;i <= missedTicks && !cancelled;i++) {
+            handle();
+          }
+          tick += missedTicks;
+          break;
+      }
+      schedule();
+    }
+
+    private void handle() {
+      synchronized (this) {
+        fired++;
+      }
+      handler.handle(id);
+    }
+
+    synchronized JsonObject toJson() {
+      return new JsonObject()
+          .put("policy", policy.name())
+          .put("fired", fired)
+          .put("missed", missed)
+          .put("p50", lateness.getValueAtPercentile(50) / 1_000_000D)
+          .put("p99", lateness.getValueAtPercentile(99) / 1_000_000D)
+          .put("max", lateness.getMaxValue() / 1_000_000D);
+    }
+  }
+}
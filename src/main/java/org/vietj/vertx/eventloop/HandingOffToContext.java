@@ -0,0 +1,45 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class HandingOffToContext extends AbstractVerticle {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new HandingOffToContext());
+  }
+
+  private long count;
+
+  public void start() throws Exception {
+    Context context = Vertx.currentContext();
+    ContextChannel<Long> channel = new ContextChannel<>(context, 4096, event -> {
+
+      // Runs on the verticle context
+      if (++count == 1_000_000) {
+        System.out.println("Received " + count + " events on " + Thread.currentThread());
+        vertx.close();
+      }
+    });
+
+    // A client thread producing events
+    Thread thread = new Thread() {
+      public void run() {
+        for (long i = 0;i < 1_000_000;i++) {
+          while (!channel.offer(i)) {
+            // The buffer is full, wait for the context to drain it
+            Thread.yield();
+          }
+        }
+      }
+    };
+    thread.start();
+  }
+}
@@ -0,0 +1,220 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends HTTP requests to a server during a given duration and reports the throughput and the latency
+ * percentiles of the responses.
+ *
+ * In the closed loop mode each connection sends a request when it gets the response of its previous request.
+ * A slow response delays the next requests, so the latencies they would have experienced are missing: the closed
+ * loop latencies suffer from this coordinated omission and are reported as measured, since there is no intended
+ * send time to correct them from. The closed loop mode measures the maximum throughput.
+ *
+ * In the open loop mode the requests are sent at a fixed rate whatever the server does, the latency of a request is
+ * measured from the time it should have been sent, so the requests queued behind a slow one account for the time
+ * they waited. The open loop mode measures the latencies at a given throughput.
+ *
+ * The generator uses its own context and should be run with a Vert.x instance that is not the server one.
+ */
+public class HttpLoadGenerator {
+
+  private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+  private final Vertx vertx;
+  private String host = "localhost";
+  private int port = 8080;
+  private String path = "/";
+  private int connections = 16;
+  private long duration = 5000;
+  private long warmup = 1000;
+  private int rate;
+
+  public HttpLoadGenerator(Vertx vertx) {
+    this.vertx = vertx;
+  }
+
+  public HttpLoadGenerator setHost(String host) {
+    this.host = host;
+    return this;
+  }
+
+  public HttpLoadGenerator setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  public HttpLoadGenerator setPath(String path) {
+    this.path = path;
+    return this;
+  }
+
+  public HttpLoadGenerator setConnections(int connections) {
+    this.connections = connections;
+    return this;
+  }
+
+  /**
+   * Set the duration of the measurement in milliseconds.
+   */
+  public HttpLoadGenerator setDuration(long duration) {
+    this.duration = duration;
+    return this;
+  }
+
+  /**
+   * Set the duration in milliseconds of the warmup, the responses received during the warmup are not measured.
+   */
+  public HttpLoadGenerator setWarmup(long warmup) {
+    this.warmup = warmup;
+    return this;
+  }
+
+  /**
+   * Set the rate in requests per second of the open loop mode, a rate of {@code 0} uses the closed loop mode.
+   */
+  public HttpLoadGenerator setRate(int rate) {
+    this.rate = rate;
+    return this;
+  }
+
+  /**
+   * Run the load, the report handler is called with the measurement:
+   *
+   * <ul>
+   *   <li>{@code requests}: the number of responses received during the measurement</li>
+   *   <li>{@code errors}: the number of failed requests and non 2xx responses</li>
+   *   <li>{@code rps}: the requests per second</li>
+   *   <li>{@code latency}: the latency percentiles in milliseconds, measured from the intended send time in the open
+   *   loop mode and from the actual send time in the closed loop mode</li>
+   * </ul>
+   */
+  public void run(Handler<JsonObject> reportHandler) {
+    Context context = vertx.getOrCreateContext();
+    context.runOnContext(v -> new Run(reportHandler).start());
+  }
+
+  private static JsonObject percentiles(Histogram histogram) {
+    return new JsonObject()
+        .put("p50", histogram.getValueAtPercentile(50) / 1_000_000D)
+        .put("p90", histogram.getValueAtPercentile(90) / 1_000_000D)
+        .put("p99", histogram.getValueAtPercentile(99) / 1_000_000D)
+        .put("p999", histogram.getValueAtPercentile(99.9) / 1_000_000D)
+        .put("max", histogram.getMaxValue() / 1_000_000D);
+  }
+
+  private class Run {
+
+    final Handler<JsonObject> reportHandler;
+    final Histogram histogram = new Histogram(HIGHEST_LATENCY, 3);
+    final HttpClient client = vertx.createHttpClient(new HttpClientOptions()
+        .setDefaultHost(host)
+        .setDefaultPort(port)
+        .setMaxPoolSize(connections)
+        .setKeepAlive(true)
+        .setPipelining(false));
+    long start;
+    long measureStart;
+    long measureEnd;
+    long errors;
+    long inflight;
+    long sent;
+    boolean done;
+
+    Run(Handler<JsonObject> reportHandler) {
+      this.reportHandler = reportHandler;
+    }
+
+    void start() {
+      start = System.nanoTime();
+      measureStart = start + TimeUnit.MILLISECONDS.toNanos(warmup);
+      measureEnd = measureStart + TimeUnit.MILLISECONDS.toNanos(duration);
+      if (rate > 0) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        vertx.setPeriodic(1, id -> {
+          long now = System.nanoTime();
+          if (now >= measureEnd) {
+            vertx.cancelTimer(id);
+            finish();
+            return;
+          }
+          // Send all the requests that should have been sent by now
+          long expected = (now - start) / interval;
+          while (sent < expected) {
+            send(start + sent * interval, null);
+            sent++;
+          }
+        });
+      } else {
+        for (int i = 0;i < connections;i++) {
+          loop();
+        }
+      }
+    }
+
+    void loop() {
+      if (System.nanoTime() < measureEnd) {
+        send(System.nanoTime(), v -> loop());
+      } else {
+        finish();
+      }
+    }
+
+    void send(long intended, Handler<Void> next) {
+      inflight++;
+      // A connection closed after the response started calls both handlers, the request completes once
+      boolean[] completed = new boolean[1];
+      Handler<Boolean> completion = failed -> {
+        if (!completed[0]) {
+          completed[0] = true;
+          completed(intended, failed, next);
+        }
+      };
+      HttpClientRequest request = client.get(path, resp -> resp.endHandler(v -> {
+        completion.handle(resp.statusCode() / 100 != 2);
+      }));
+      request.exceptionHandler(err -> completion.handle(true));
+      request.end();
+    }
+
+    void completed(long intended, boolean failed, Handler<Void> next) {
+      inflight--;
+      long now = System.nanoTime();
+      if (intended >= measureStart && intended < measureEnd) {
+        if (failed) {
+          errors++;
+        }
+        histogram.recordValue(Math.min(now - intended, HIGHEST_LATENCY));
+      }
+      if (next != null) {
+        next.handle(null);
+      } else {
+        finish();
+      }
+    }
+
+    void finish() {
+      if (done || inflight > 0 || System.nanoTime() < measureEnd) {
+        return;
+      }
+      done = true;
+      client.close();
+      JsonObject report = new JsonObject()
+          .put("mode", rate > 0 ? "open" : "closed")
+          .put("requests", histogram.getTotalCount())
+          .put("errors", errors)
+          .put("rps", histogram.getTotalCount() * 1000 / duration);
+      report.put("latency", percentiles(histogram));
+      reportHandler.handle(report);
+    }
+  }
+}
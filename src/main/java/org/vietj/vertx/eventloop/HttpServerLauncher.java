@@ -0,0 +1,78 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Launches an HTTP server configured for short lived connections: one instance per event loop on distinct event
+ * loops with a {@link ShardedHttpServer}, a larger accept backlog, {@code SO_REUSEADDR} and {@code TCP_NODELAY}.
+ *
+ * The instances share a single listening socket: all the connections are accepted by one acceptor and then
+ * dispatched to the server instances. Vert.x 3.0 runs on the NIO transport and does not expose {@code SO_REUSEPORT},
+ * binding a listening socket per instance so the kernel balances the accepts between them would require the native
+ * epoll transport and a Vert.x version providing it.
+ */
+public class HttpServerLauncher {
+
+  private int port = 8080;
+  private String host = "0.0.0.0";
+  private int instances = Runtime.getRuntime().availableProcessors();
+  private int acceptBacklog = 1024;
+
+  public HttpServerLauncher setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  public HttpServerLauncher setHost(String host) {
+    this.host = host;
+    return this;
+  }
+
+  /**
+   * Set the number of server instances, Vert.x is created with one event loop per instance.
+   */
+  public HttpServerLauncher setInstances(int instances) {
+    this.instances = instances;
+    return this;
+  }
+
+  public HttpServerLauncher setAcceptBacklog(int acceptBacklog) {
+    this.acceptBacklog = acceptBacklog;
+    return this;
+  }
+
+  public VertxOptions vertxOptions() {
+    return new VertxOptions().setEventLoopPoolSize(instances);
+  }
+
+  public HttpServerOptions serverOptions() {
+    return new HttpServerOptions()
+        .setPort(port)
+        .setHost(host)
+        .setAcceptBacklog(acceptBacklog)
+        .setReuseAddress(true)
+        .setTcpNoDelay(true);
+  }
+
+  /**
+   * Create Vert.x and start the server instances, the handler is called with the started server.
+   */
+  public void launch(Handler<HttpServerRequest> requestHandler, Handler<AsyncResult<ShardedHttpServer>> handler) {
+    Vertx vertx = Vertx.vertx(vertxOptions());
+    ShardedHttpServer server = new ShardedHttpServer(vertx, serverOptions(), instances);
+    server.requestHandler(requestHandler).listen(ar -> {
+      if (ar.failed()) {
+        vertx.close();
+        handler.handle(Future.failedFuture(ar.cause()));
+      } else {
+        handler.handle(ar);
+      }
+    });
+  }
+}
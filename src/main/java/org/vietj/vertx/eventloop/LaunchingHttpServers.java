@@ -0,0 +1,82 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class LaunchingHttpServers {
+
+  private static Handler<HttpServerRequest> requestHandler = req -> req.response().end("OK");
+
+  public static void main(String[] args) throws Exception {
+    // A single server with the default options
+    Vertx vertx = Vertx.vertx();
+    CompletableFuture<Void> listening = new CompletableFuture<>();
+    vertx.createHttpServer(new HttpServerOptions().setPort(8080)).requestHandler(requestHandler).listen(ar -> listening.complete(null));
+    listening.get();
+    System.out.println("Default server, connections per second " + connectionsPerSecond());
+    close(vertx);
+
+    // The server instances started by the launcher
+    CompletableFuture<ShardedHttpServer> launched = new CompletableFuture<>();
+    new HttpServerLauncher().setPort(8080).setInstances(4).launch(requestHandler, ar -> {
+      if (ar.succeeded()) {
+        launched.complete(ar.result());
+      } else {
+        launched.completeExceptionally(ar.cause());
+      }
+    });
+    ShardedHttpServer server = launched.get();
+    System.out.println("Launched server, connections per second " + connectionsPerSecond());
+    CompletableFuture<Void> printed = new CompletableFuture<>();
+    server.stats(stats -> {
+      System.out.println(stats.encodePrettily());
+      printed.complete(null);
+    });
+    printed.get();
+    close(server.vertx());
+  }
+
+  private static long connectionsPerSecond() throws Exception {
+    // Open a new connection for each request during 1 second of warmup and 2 seconds of measurement
+    Vertx client = Vertx.vertx();
+    HttpClient httpClient = client.createHttpClient(new HttpClientOptions().setKeepAlive(false).setMaxPoolSize(64));
+    AtomicLong responses = new AtomicLong();
+    long start = System.currentTimeMillis() + 1000;
+    long end = start + 2000;
+    for (int i = 0;i < 64;i++) {
+      new Runnable() {
+        public void run() {
+          if (System.currentTimeMillis() < end) {
+            httpClient.getNow(8080, "localhost", "/", resp -> resp.endHandler(v -> {
+              if (System.currentTimeMillis() >= start) {
+                responses.incrementAndGet();
+              }
+              run();
+            }));
+          }
+        }
+      }.run();
+    }
+    Thread.sleep(3500);
+    close(client);
+    return responses.get() / 2;
+  }
+
+  private static void close(Vertx vertx) throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(ar -> closed.complete(null));
+    closed.get();
+  }
+}
@@ -0,0 +1,201 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dispatches the messages sent to an address to the least loaded of the instances that joined it, instead of the
+ * round robin of the event bus that queues a message behind a slow one while other instances are idle.
+ *
+ * Each instance {@link #join(Vertx, String, Handler) joins} the address with its own consumer, the dispatcher
+ * counts the messages in flight for each instance and sends a message to the instance with the fewest of them.
+ * When all the instances have {@code maxInFlight} messages the message waits in the dispatcher queue and the first
+ * instance replying takes it: with a {@code maxInFlight} of {@code 1} the idle instances take the queued work.
+ *
+ * The instances must reply to the messages, the reply is forwarded to the sender. An instance {@link #leave leaves}
+ * the dispatcher when it unregisters, an instance that went away without leaving, for instance when its verticle is
+ * undeployed, is removed when a message can not be delivered to it and the message is dispatched to another instance.
+ * The dispatcher handles the messages on the context that created it, its {@link #metrics()} must be read from this
+ * context.
+ */
+public class LeastLoadedDispatcher {
+
+  private static final long RETRY_DELAY = 100;
+
+  public static LeastLoadedDispatcher dispatcher(Vertx vertx, String address, int maxInFlight) {
+    return new LeastLoadedDispatcher(vertx, address, maxInFlight);
+  }
+
+  /**
+   * Join the instance consuming with the {@code handler} to the dispatcher of the {@code address}, the join is
+   * retried until a dispatcher acknowledges it.
+   */
+  public static <T> MessageConsumer<T> join(Vertx vertx, String address, Handler<Message<T>> handler) {
+    String instanceAddress = address + "." + UUID.randomUUID();
+    MessageConsumer<T> consumer = vertx.eventBus().consumer(instanceAddress, handler);
+    consumer.completionHandler(ar -> sendJoin(vertx, address, consumer));
+    return consumer;
+  }
+
+  /**
+   * Unregister the {@code consumer} of an instance and remove the instance from the dispatcher of the
+   * {@code address}.
+   */
+  public static void leave(Vertx vertx, String address, MessageConsumer<?> consumer) {
+    consumer.unregister();
+    vertx.eventBus().send(address + ".leave", consumer.address());
+  }
+
+  private static void sendJoin(Vertx vertx, String address, MessageConsumer<?> consumer) {
+    vertx.eventBus().send(address + ".join", consumer.address(), ar -> {
+      if (ar.failed() && consumer.isRegistered()) {
+        // No dispatcher yet
+        vertx.setTimer(RETRY_DELAY, id -> sendJoin(vertx, address, consumer));
+      }
+    });
+  }
+
+  private final Vertx vertx;
+  private final int maxInFlight;
+  private final List<Instance> instances = new ArrayList<>();
+  private final ArrayDeque<Message<Object>> queue = new ArrayDeque<>();
+  private final MessageConsumer<Object> consumer;
+  private final MessageConsumer<String> joinConsumer;
+  private final MessageConsumer<String> leaveConsumer;
+  private int maxQueued;
+
+  private LeastLoadedDispatcher(Vertx vertx, String address, int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Max in flight must be > 0");
+    }
+    this.vertx = vertx;
+    this.maxInFlight = maxInFlight;
+    this.consumer = vertx.eventBus().consumer(address, this::dispatch);
+    this.joinConsumer = vertx.eventBus().consumer(address + ".join", msg -> {
+      if (instance(msg.body()) == null) {
+        instances.add(new Instance(msg.body()));
+      }
+      msg.reply(null);
+      dispatchQueued();
+    });
+    this.leaveConsumer = vertx.eventBus().consumer(address + ".leave", msg -> {
+      Instance instance = instance(msg.body());
+      if (instance != null) {
+        instances.remove(instance);
+      }
+    });
+  }
+
+  public void unregister() {
+    consumer.unregister();
+    joinConsumer.unregister();
+    leaveConsumer.unregister();
+  }
+
+  /**
+   * @return the queue of the dispatcher and the messages in flight, dispatched and the mean service time in
+   * milliseconds of each instance
+   */
+  public JsonObject metrics() {
+    JsonArray list = new JsonArray();
+    for (Instance instance : instances) {
+      list.add(new JsonObject()
+          .put("address", instance.address)
+          .put("inFlight", instance.inFlight)
+          .put("dispatched", instance.dispatched)
+          .put("meanServiceTime", instance.dispatched > 0 ? instance.serviceNanos / instance.dispatched / 1_000_000D : 0D));
+    }
+    return new JsonObject()
+        .put("queued", queue.size())
+        .put("maxQueued", maxQueued)
+        .put("instances", list);
+  }
+
+  private void dispatch(Message<Object> msg) {
+    Instance instance = leastLoaded();
+    if (instance != null && queue.isEmpty()) {
+      instance.send(msg);
+    } else {
+      queue.add(msg);
+      maxQueued = Math.max(maxQueued, queue.size());
+    }
+  }
+
+  private void dispatchQueued() {
+    Instance instance;
+    while (!queue.isEmpty() && (instance = leastLoaded()) != null) {
+      instance.send(queue.poll());
+    }
+  }
+
+  private Instance instance(String address) {
+    for (Instance instance : instances) {
+      if (instance.address.equals(address)) {
+        return instance;
+      }
+    }
+    return null;
+  }
+
+  private Instance leastLoaded() {
+    Instance least = null;
+    for (Instance instance : instances) {
+      if (instance.inFlight < maxInFlight && (least == null || instance.inFlight < least.inFlight)) {
+        least = instance;
+      }
+    }
+    return least;
+  }
+
+  private class Instance {
+
+    final String address;
+    int inFlight;
+    long dispatched;
+    long serviceNanos;
+
+    Instance(String address) {
+      this.address = address;
+    }
+
+    void send(Message<Object> msg) {
+      inFlight++;
+      long start = System.nanoTime();
+      DeliveryOptions options = new DeliveryOptions().setHeaders(msg.headers());
+      vertx.eventBus().send(address, msg.body(), options, ar -> {
+        inFlight--;
+        if (ar.failed() && ar.cause() instanceof ReplyException &&
+            ((ReplyException) ar.cause()).failureType() == ReplyFailure.NO_HANDLERS) {
+          // The instance went away without leaving, the message was not handled
+          instances.remove(this);
+          queue.addFirst(msg);
+          dispatchQueued();
+          return;
+        }
+        dispatched++;
+        serviceNanos += System.nanoTime() - start;
+        if (ar.succeeded()) {
+          msg.reply(ar.result().body(), new DeliveryOptions().setHeaders(ar.result().headers()));
+        } else if (ar.cause() instanceof ReplyException) {
+          ReplyException failure = (ReplyException) ar.cause();
+          msg.fail(failure.failureCode(), failure.getMessage());
+        } else {
+          msg.fail(-1, ar.cause().getMessage());
+        }
+        dispatchQueued();
+      });
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.codecs.BufferMessageCodec;
+import io.vertx.core.eventbus.impl.codecs.JsonArrayMessageCodec;
+import io.vertx.core.eventbus.impl.codecs.JsonObjectMessageCodec;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * A codec delivering the message body by reference to the local consumers instead of copying it like the
+ * Vert.x codecs do for {@code JsonObject}, {@code JsonArray} and {@code Buffer}.
+ *
+ * Sending a message transfers the ownership of the body: the sender must not modify it after the send.
+ * The {@link #BUFFER_SLICE} codec delivers a slice of the buffer sharing its memory, so the consumer can not
+ * modify the indexes of the sender buffer.
+ *
+ * The codecs created with {@link #local(Class)} can only be used for local delivery: sending a message to a remote
+ * node of a cluster fails with an {@link IllegalStateException}. The other codecs delegate to the Vert.x codecs when
+ * the message is sent over the wire.
+ *
+ * A codec keeps track of the event buses it is registered with, so {@link #register(EventBus)} can be called by
+ * each user of the codec.
+ */
+public class LocalMessageCodec<T> implements MessageCodec<T, T> {
+
+  public static final LocalMessageCodec<JsonObject> JSON_OBJECT =
+      new LocalMessageCodec<>("local-json-object", new JsonObjectMessageCodec(), Function.identity());
+
+  public static final LocalMessageCodec<JsonArray> JSON_ARRAY =
+      new LocalMessageCodec<>("local-json-array", new JsonArrayMessageCodec(), Function.identity());
+
+  public static final LocalMessageCodec<Buffer> BUFFER_SLICE =
+      new LocalMessageCodec<>("local-buffer-slice", new BufferMessageCodec(), Buffer::slice);
+
+  /**
+   * Create a local only codec for the {@code type}, it can be registered as the default codec of this type.
+   */
+  public static <T> LocalMessageCodec<T> local(Class<T> type) {
+    return new LocalMessageCodec<>("local-" + type.getName(), null, Function.identity());
+  }
+
+  private final String name;
+  private final MessageCodec<T, T> wire;
+  private final Function<T, T> transform;
+  private final Set<EventBus> registrations = Collections.newSetFromMap(new WeakHashMap<>());
+
+  private LocalMessageCodec(String name, MessageCodec<T, T> wire, Function<T, T> transform) {
+    this.name = name;
+    this.wire = wire;
+    this.transform = transform;
+  }
+
+  /**
+   * Register this codec with the {@code eventBus} if it is not yet registered.
+   */
+  public LocalMessageCodec<T> register(EventBus eventBus) {
+    synchronized (registrations) {
+      if (registrations.add(eventBus)) {
+        eventBus.registerCodec(this);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * @return delivery options using this codec
+   */
+  public DeliveryOptions options() {
+    return new DeliveryOptions().setCodecName(name);
+  }
+
+  @Override
+  public void encodeToWire(Buffer buffer, T body) {
+    checkWire();
+    wire.encodeToWire(buffer, body);
+  }
+
+  @Override
+  public T decodeFromWire(int pos, Buffer buffer) {
+    checkWire();
+    return wire.decodeFromWire(pos, buffer);
+  }
+
+  private void checkWire() {
+    if (wire == null) {
+      throw new IllegalStateException("Codec " + name + " is local only, it cannot send a message to a remote " +
+          "node of the cluster: use it for local consumers only or use a codec that encodes the body");
+    }
+  }
+
+  @Override
+  public T transform(T body) {
+    return transform.apply(body);
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -1,13 +1,271 @@
 package org.vietj.vertx.eventloop;
 
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Verticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
+ * Runs a scenario with the pool sizes, instances and message volume given on the command line and prints the
+ * throughput, the event loop utilization and the latency percentiles.
+ *
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
 public class Main {
 
+  private static final String USAGE = String.join("\n",
+      "Usage: Main <class> [options]",
+      "",
+      "  <class> is a verticle, a TaskBase, a class with an execute(Vertx) method or a class with a main method",
+      "  creating its own Vert.x instance, only the event loop utilization of the latter is reported and the",
+      "  pool, instance and message options do not apply to it",
+      "",
+      "  --eventLoops <n>    the event loop pool size",
+      "  --workers <n>       the worker pool size",
+      "  --instances <n>     the instances of the verticle (1)",
+      "  --worker            deploy the verticle as a worker",
+      "  --address <addr>    the address the messages are sent to (the-address)",
+      "  --messages <n>      the number of messages to send (0)",
+      "  --concurrency <n>   the maximum number of messages waiting for a reply (100)",
+      "  --duration <ms>     the time to wait when no messages are sent (1000)",
+      "",
+      "Example: Main org.vietj.vertx.eventloop.TheWorker --worker --instances 4 --workers 2 --messages 1000");
+
   public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.out.println(USAGE);
+      return;
+    }
+    Map<String, String> options = parse(Arrays.copyOfRange(args, 1, args.length));
+    new Main(args[0], options).run();
+  }
+
+  private static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 0;i < args.length;i++) {
+      if (!args[i].startsWith("--")) {
+        throw new IllegalArgumentException("Invalid option " + args[i] + "\n" + USAGE);
+      }
+      String name = args[i].substring(2);
+      if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+        options.put(name, args[++i]);
+      } else {
+        options.put(name, "true");
+      }
+    }
+    return options;
+  }
 
+  private final String className;
+  private final Map<String, String> options;
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final Histogram latencies = new Histogram(TimeUnit.MINUTES.toNanos(1), 3);
 
+  private Main(String className, Map<String, String> options) {
+    this.className = className;
+    this.options = options;
   }
 
+  private int intOption(String name, int def) {
+    String value = options.get(name);
+    return value != null ? Integer.parseInt(value) : def;
+  }
+
+  private void run() throws Exception {
+    Class<?> clazz = Class.forName(className);
+    if (!Verticle.class.isAssignableFrom(clazz) && !TaskBase.class.isAssignableFrom(clazz) && !hasExecute(clazz)) {
+      runMain(clazz.getMethod("main", String[].class));
+      return;
+    }
+    VertxOptions vertxOptions = new VertxOptions();
+    if (options.containsKey("eventLoops")) {
+      vertxOptions.setEventLoopPoolSize(intOption("eventLoops", 0));
+    }
+    if (options.containsKey("workers")) {
+      vertxOptions.setWorkerPoolSize(intOption("workers", 0));
+    }
+    Vertx vertx = Vertx.vertx(vertxOptions);
+    EventLoopMonitor monitor = new EventLoopMonitor(vertx, 10, TimeUnit.MILLISECONDS).start(null);
+    try {
+      Map<String, Long> cpuStart = eventLoopCpuTimes();
+      long start = System.nanoTime();
+      long messages = execute(vertx, clazz);
+      long elapsed = System.nanoTime() - start;
+      report(messages, elapsed, cpuStart, eventLoopCpuTimes(), monitor);
+    } finally {
+      monitor.stop();
+      CompletableFuture<Void> closed = new CompletableFuture<>();
+      vertx.close(ar -> closed.complete(null));
+      closed.get(30, TimeUnit.SECONDS);
+    }
+  }
+
+  private static boolean hasExecute(Class<?> clazz) {
+    try {
+      clazz.getMethod("execute", Vertx.class);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Run a scenario creating its own Vert.x instance: the messages can not be sent to this instance and its event
+   * loops can not be monitored, only the CPU time of the event loop threads is measured.
+   */
+  private void runMain(Method main) throws Exception {
+    if (intOption("messages", 0) > 0) {
+      throw new IllegalArgumentException("Cannot send messages to the Vert.x instance of " + className);
+    }
+    for (String option : Arrays.asList("eventLoops", "workers", "instances", "worker")) {
+      if (options.containsKey(option)) {
+        throw new IllegalArgumentException("Option --" + option + " does not apply to " + className + " that creates " +
+            "its own Vert.x instance, run its verticle or a class with an execute(Vertx) method instead");
+      }
+    }
+    Map<String, Long> cpuStart = eventLoopCpuTimes();
+    long start = System.nanoTime();
+    main.invoke(null, (Object) new String[0]);
+    Thread.sleep(intOption("duration", 1000));
+    long elapsed = System.nanoTime() - start;
+    report(0, elapsed, cpuStart, eventLoopCpuTimes(), null);
+    // The Vert.x instance of the scenario can not be closed from here
+    System.exit(0);
+  }
+
+  /**
+   * Execute the scenario and send the messages.
+   *
+   * @return the number of replies
+   */
+  private long execute(Vertx vertx, Class<?> clazz) throws Exception {
+    Object scenario = clazz.getDeclaredConstructor().newInstance();
+    if (scenario instanceof Verticle) {
+      DeploymentOptions deploymentOptions = new DeploymentOptions()
+          .setWorker(options.containsKey("worker"))
+          .setInstances(intOption("instances", 1));
+      CompletableFuture<String> deployed = new CompletableFuture<>();
+      vertx.deployVerticle(className, deploymentOptions, ar -> {
+        if (ar.succeeded()) {
+          deployed.complete(ar.result());
+        } else {
+          deployed.completeExceptionally(ar.cause());
+        }
+      });
+      deployed.get(30, TimeUnit.SECONDS);
+    } else if (scenario instanceof TaskBase) {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      Future<Void> completion = Future.future();
+      completion.setHandler(ar -> {
+        if (ar.succeeded()) {
+          done.complete(null);
+        } else {
+          done.completeExceptionally(ar.cause());
+        }
+      });
+      ((TaskBase) scenario).execute(vertx, completion);
+      done.get(30, TimeUnit.SECONDS);
+    } else {
+      Method execute = clazz.getMethod("execute", Vertx.class);
+      execute.invoke(scenario, vertx);
+    }
+    int messages = intOption("messages", 0);
+    if (messages > 0) {
+      return send(vertx, messages);
+    }
+    Thread.sleep(intOption("duration", 1000));
+    return 0;
+  }
+
+  private long send(Vertx vertx, int messages) throws Exception {
+    String address = options.getOrDefault("address", "the-address");
+    int concurrency = intOption("concurrency", 100);
+    AtomicLong replies = new AtomicLong();
+    AtomicLong failures = new AtomicLong();
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    vertx.runOnContext(v -> {
+      Runnable sender = new Runnable() {
+        int sent;
+        public void run() {
+          while (sent < messages && sent - replies.get() - failures.get() < concurrency) {
+            sent++;
+            long time = System.nanoTime();
+            vertx.eventBus().send(address, "the-message", reply -> {
+              latencies.recordValue(Math.min(System.nanoTime() - time, latencies.getHighestTrackableValue()));
+              if (reply.succeeded()) {
+                replies.incrementAndGet();
+              } else {
+                failures.incrementAndGet();
+              }
+              if (replies.get() + failures.get() == messages) {
+                done.complete(null);
+              } else {
+                run();
+              }
+            });
+          }
+        }
+      };
+      sender.run();
+      vertx.setPeriodic(1000, id -> {
+        if (done.isDone()) {
+          vertx.cancelTimer(id);
+        } else {
+          System.out.println("Replies " + replies.get() + "/" + messages + ", failures " + failures.get());
+        }
+      });
+    });
+    done.get(10, TimeUnit.MINUTES);
+    if (failures.get() > 0) {
+      System.out.println("Failures " + failures.get());
+    }
+    return replies.get();
+  }
+
+  private Map<String, Long> eventLoopCpuTimes() {
+    Map<String, Long> times = new TreeMap<>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.getName().startsWith("vert.x-eventloop-thread-")) {
+        times.put(thread.getName(), threads.getThreadCpuTime(thread.getId()));
+      }
+    }
+    return times;
+  }
+
+  private void report(long messages, long elapsed, Map<String, Long> cpuStart, Map<String, Long> cpuEnd, EventLoopMonitor monitor) {
+    JsonObject report = new JsonObject();
+    report.put("elapsed", elapsed / 1_000_000D);
+    if (messages > 0) {
+      report.put("throughput", messages * 1_000_000_000D / elapsed);
+      report.put("latency", new JsonObject()
+          .put("p50", latencies.getValueAtPercentile(50) / 1_000_000D)
+          .put("p99", latencies.getValueAtPercentile(99) / 1_000_000D)
+          .put("p999", latencies.getValueAtPercentile(99.9) / 1_000_000D)
+          .put("max", latencies.getMaxValue() / 1_000_000D));
+    }
+    JsonObject utilization = new JsonObject();
+    cpuEnd.forEach((name, cpu) -> {
+      long busy = cpu - cpuStart.getOrDefault(name, 0L);
+      utilization.put(name, Math.min(100D, busy * 100D / elapsed));
+    });
+    report.put("utilization", utilization);
+    if (monitor != null) {
+      report.put("lag", monitor.toJson());
+    }
+    System.out.println(report.encodePrettily());
+  }
 }
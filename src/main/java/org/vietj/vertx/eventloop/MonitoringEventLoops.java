@@ -0,0 +1,42 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class MonitoringEventLoops {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(4));
+    new EventLoopMonitor(vertx, 1, TimeUnit.MILLISECONDS).start("eventloop.metrics");
+    for (int i = 0; i < 4; i++) {
+      int index = i;
+      vertx.deployVerticle(new AbstractVerticle() {
+        public void start() throws Exception {
+          if (index == 0) {
+            // This verticle makes its event loop hot
+            vertx.setPeriodic(10, id -> {
+              long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+              while (System.nanoTime() < until) {
+              }
+            });
+          }
+        }
+      });
+    }
+    vertx.setTimer(2000, id -> {
+      vertx.eventBus().<JsonObject>send("eventloop.metrics", null, reply -> {
+        System.out.println(reply.result().body().encodePrettily());
+        vertx.close();
+      });
+    });
+  }
+}
@@ -0,0 +1,40 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class PassingByReference {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    LocalMessageCodec.BUFFER_SLICE.register(vertx.eventBus());
+    LocalMessageCodec.JSON_OBJECT.register(vertx.eventBus());
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        vertx.eventBus().<Buffer>consumer("the-address", msg -> {
+          // The buffer shares the memory of the sent buffer
+          JsonObject reply = new JsonObject()
+              .put("length", msg.body().length())
+              .put("thread", Thread.currentThread().getName());
+          msg.reply(reply, LocalMessageCodec.JSON_OBJECT.options());
+        });
+      }
+    }, new DeploymentOptions().setWorker(true), ar -> {
+      Buffer payload = Buffer.buffer(new byte[1024 * 1024]);
+      // The payload must not be modified after it is sent
+      vertx.eventBus().<JsonObject>send("the-address", payload, LocalMessageCodec.BUFFER_SLICE.options(), reply -> {
+        System.out.println(reply.result().body());
+        vertx.close();
+      });
+    });
+  }
+}
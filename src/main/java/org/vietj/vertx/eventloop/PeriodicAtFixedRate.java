@@ -0,0 +1,41 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class PeriodicAtFixedRate {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    FixedRateScheduler scheduler = new FixedRateScheduler(vertx);
+    for (FixedRateScheduler.MissedTicks policy : FixedRateScheduler.MissedTicks.values()) {
+      vertx.deployVerticle(new AbstractVerticle() {
+        @Override
+        public void start() throws Exception {
+          AtomicInteger count = new AtomicInteger();
+          scheduler.setPeriodic(100, policy, id -> {
+            if (count.incrementAndGet() % 5 == 0) {
+              // Block the worker for more than two periods
+              try {
+                Thread.sleep(250);
+              } catch (InterruptedException ignore) {
+              }
+            }
+          });
+        }
+      }, new DeploymentOptions().setWorker(true));
+    }
+    vertx.setTimer(3000, id -> {
+      System.out.println(scheduler.toJson().encodePrettily());
+      vertx.close();
+    });
+  }
+}
@@ -0,0 +1,39 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class PeriodicOnVirtualClock {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    VirtualTimerSource timers = new VirtualTimerSource(vertx);
+    long start = System.currentTimeMillis();
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        AtomicLong count = new AtomicLong(10);
+        long now = timers.now();
+        System.out.println("Starting periodic on " + Thread.currentThread());
+        timers.setPeriodic(1000, id -> {
+          System.out.println("Periodic fired " + Thread.currentThread() + " after " + (timers.now() - now) + " ms");
+          if (count.decrementAndGet() == 0) {
+            timers.cancelTimer(id);
+            System.out.println("Done in " + (System.currentTimeMillis() - start) + " ms");
+            // Stop the thread driving the clock
+            timers.close();
+            vertx.close();
+          }
+        });
+      }
+    }, new DeploymentOptions().setWorker(true));
+  }
+}
@@ -0,0 +1,43 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.docgen.Source;
+
+import java.util.Arrays;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class PinningEventLoops {
+
+  public static void main(String[] args) {
+    int[] cpus = CpuAffinity.availableCpus();
+    // Keep the last CPU for the workers when there are several
+    int[] eventLoopCpus = cpus.length > 1 ? Arrays.copyOf(cpus, cpus.length - 1) : cpus;
+    int[] workerCpus = { cpus[cpus.length - 1] };
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(eventLoopCpus.length));
+    CpuAffinity.pinWorkers(vertx, workerCpus);
+    CpuAffinity.pinEventLoops(vertx, eventLoopCpus, ar -> {
+      if (ar.failed()) {
+        System.out.println("Could not pin the event loops: " + ar.cause().getMessage());
+        vertx.close();
+        return;
+      }
+      for (int i = 0; i < 4; i++) {
+        int index = i;
+        vertx.deployVerticle(new AbstractVerticle() {
+          public void start() throws Exception {
+            System.out.println(index + ":" + Thread.currentThread() + " on CPUs " + CpuAffinity.currentAffinity());
+            vertx.executeBlocking(fut -> {
+              System.out.println(index + ":" + Thread.currentThread() + " on CPUs " + CpuAffinity.currentAffinity());
+              fut.complete();
+            }, null);
+          }
+        });
+      }
+    });
+  }
+}
@@ -0,0 +1,43 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class RunningScenarios {
+
+  public static class Success extends TaskBase {
+    @Override
+    public void execute(Vertx vertx, Future<Void> completion) {
+      vertx.runOnContext(v -> {
+        System.out.println("Calling blocking block from " + Thread.currentThread());
+        vertx.<String>executeBlocking(future -> {
+          System.out.println("Computing with " + Thread.currentThread());
+          future.complete("some result");
+        }, result -> {
+          System.out.println("Got result in " + Thread.currentThread());
+          // The scenario is done
+          completion.complete();
+        });
+      });
+    }
+  }
+
+  public static class RunOnContext extends TaskBase {
+    @Override
+    public void execute(Vertx vertx, Future<Void> completion) {
+      new ExecuteBlockingRunOnContext().execute(vertx);
+      // Done after the timeout
+      vertx.setTimer(timeout(), id -> completion.complete());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    // Both scenarios run at the same time, each with its own Vert.x instance and output
+    new ScenarioRunner().run(new Success(), new RunOnContext());
+  }
+}
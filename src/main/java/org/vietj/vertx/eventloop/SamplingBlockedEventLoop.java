@@ -0,0 +1,33 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class SamplingBlockedEventLoop {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    BlockedThreadSampler sampler = new BlockedThreadSampler(100, TimeUnit.MICROSECONDS)
+        .sampleEventLoops(vertx)
+        .start();
+    vertx.setPeriodic(10, id -> {
+      // Blocking the Vert.x event loop a little bit
+      try {
+        Thread.sleep(3);
+      } catch (InterruptedException e) {
+        e.printStackTrace();
+      }
+    });
+    vertx.setTimer(5000, id -> {
+      System.out.println(sampler.toJson().encodePrettily());
+      sampler.stop();
+      vertx.close();
+    });
+  }
+}
@@ -0,0 +1,176 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@link TaskBase} scenarios concurrently, each scenario with its own Vert.x instance, and writes the output of
+ * each scenario in {@code <outputDir>/<name>.txt}.
+ *
+ * A scenario is done when it completes the future given to {@link TaskBase#execute(Vertx, Future)}, the runner
+ * does not wait for a fixed time. The output is captured by replacing {@code System.out} with an
+ * {@link AsyncPrintStream} while the scenarios run, so the scenarios do not contend on the output. What a thread
+ * prints goes to the scenario owning the context of the thread, or otherwise to the scenario that started the
+ * thread.
+ */
+public class ScenarioRunner {
+
+  private static final long MAX_PENDING_BYTES = 16 * 1024 * 1024;
+
+  private final String outputDir;
+  private final long maxTime;
+
+  public ScenarioRunner() {
+    this("src/main/asciidoc", 30000);
+  }
+
+  /**
+   * @param outputDir the directory of the output files
+   * @param maxTime the time in milliseconds after which a scenario that did not complete fails
+   */
+  public ScenarioRunner(String outputDir, long maxTime) {
+    this.outputDir = outputDir;
+    this.maxTime = maxTime;
+  }
+
+  public void run(TaskBase... tasks) throws Exception {
+    run(Arrays.asList(tasks));
+  }
+
+  public void run(List<? extends TaskBase> tasks) throws Exception {
+    PrintStream prev = System.out;
+    Capture capture = new Capture(prev);
+    AsyncPrintStream out = new AsyncPrintStream(capture::target, MAX_PENDING_BYTES);
+    System.setOut(out);
+    List<Run> runs = new ArrayList<>();
+    try {
+      for (TaskBase task : tasks) {
+        runs.add(new Run(task, capture));
+      }
+      for (Run run : runs) {
+        run.await();
+      }
+    } finally {
+      // Restore the output first, so nothing printed meanwhile is lost
+      System.setOut(prev);
+      out.close();
+    }
+    if (out.dropped() > 0) {
+      prev.println("Dropped " + out.dropped() + " lines of output");
+    }
+    List<String> failures = new ArrayList<>();
+    for (Run run : runs) {
+      run.write();
+      if (run.failure != null) {
+        failures.add(run.task.name() + ": " + run.failure.getMessage());
+      }
+    }
+    if (failures.size() > 0) {
+      throw new Exception("Scenarios failed " + failures);
+    }
+  }
+
+  private class Run {
+
+    final TaskBase task;
+    final Capture capture;
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+    final Vertx vertx = Vertx.vertx();
+    Throwable failure;
+
+    Run(TaskBase task, Capture capture) {
+      this.task = task;
+      this.capture = capture;
+      capture.register(vertx, buffer);
+      Future<Void> completion = Future.future();
+      completion.setHandler(ar -> {
+        if (ar.succeeded()) {
+          done.complete(null);
+        } else {
+          done.completeExceptionally(ar.cause());
+        }
+      });
+      capture.local.set(buffer);
+      try {
+        task.execute(vertx, completion);
+      } catch (Throwable t) {
+        done.completeExceptionally(t);
+      } finally {
+        capture.local.remove();
+      }
+    }
+
+    void await() {
+      try {
+        done.get(maxTime, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        failure = new Exception("Not completed after " + maxTime + " ms");
+      } catch (Exception e) {
+        failure = e.getCause() != null ? e.getCause() : e;
+      }
+      CompletableFuture<Void> closed = new CompletableFuture<>();
+      vertx.close(ar -> closed.complete(null));
+      try {
+        closed.get(maxTime, TimeUnit.MILLISECONDS);
+      } catch (Exception ignore) {
+      }
+      capture.unregister(vertx);
+    }
+
+    void write() throws IOException {
+      try (FileOutputStream log = new FileOutputStream(outputDir + "/" + task.name() + ".txt")) {
+        buffer.writeTo(log);
+      }
+    }
+  }
+
+  /**
+   * Routes the output to the buffer of the scenario of the current thread.
+   */
+  private static class Capture {
+
+    final OutputStream fallback;
+    final Map<Vertx, OutputStream> buffers = new ConcurrentHashMap<>();
+    final InheritableThreadLocal<OutputStream> local = new InheritableThreadLocal<>();
+
+    Capture(OutputStream fallback) {
+      this.fallback = fallback;
+    }
+
+    void register(Vertx vertx, OutputStream buffer) {
+      buffers.put(vertx, buffer);
+    }
+
+    void unregister(Vertx vertx) {
+      buffers.remove(vertx);
+    }
+
+    OutputStream target() {
+      Context context = Vertx.currentContext();
+      OutputStream target = null;
+      if (context != null) {
+        target = buffers.get(context.owner());
+      }
+      if (target == null) {
+        target = local.get();
+      }
+      return target != null ? target : fallback;
+    }
+  }
+}
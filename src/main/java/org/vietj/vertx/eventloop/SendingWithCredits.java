@@ -0,0 +1,47 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class SendingWithCredits {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new AbstractVerticle() {
+      CreditConsumer<String> consumer;
+
+      @Override
+      public void start() throws Exception {
+        consumer = CreditConsumer.consumer(vertx, "the-address", 16, msg -> {
+          try {
+            Thread.sleep(10);
+          } catch (InterruptedException ignore) {
+          }
+        });
+        vertx.setTimer(3000, id -> System.out.println("Max inbox size " + consumer.maxInboxSize()));
+      }
+
+      @Override
+      public void stop() throws Exception {
+        consumer.unregister();
+      }
+    }, new DeploymentOptions().setWorker(true));
+    vertx.runOnContext(v -> {
+      // Produce a message every millisecond, 10 times faster than the worker
+      CreditSender<String> sender = new CreditSender<>(vertx, "the-address", 100, CreditSender.OverflowPolicy.DROP_OLDEST);
+      long producer = vertx.setPeriodic(1, id -> sender.write("the-message"));
+      vertx.setTimer(3000, id -> {
+        vertx.cancelTimer(producer);
+        System.out.println("Sent " + sender.sent() + " dropped " + sender.dropped() + " queued " + sender.queueSize());
+        sender.close();
+        vertx.close();
+      });
+    });
+  }
+}
@@ -0,0 +1,80 @@
+package org.vietj.vertx.eventloop;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A counter with one shard per thread: each event loop updates its own shard without synchronization, the
+ * {@link #sum()} aggregates the shards of all the threads, like a {@code LongAdder} without contention at all.
+ *
+ * A shard has a single writer, its value is published with an ordered write instead of a compare and swap.
+ *
+ * The shard of a thread that is dead, e.g a transient thread or the event loop of a closed Vertx instance, is
+ * folded into a base value when a shard is created or when the counter is aggregated, so the number of shards is
+ * bounded by the number of live threads that updated the counter. Folding and aggregating are serialized, the
+ * updates of the shards are not.
+ */
+public class ShardedCounter {
+
+  private static final AtomicLongFieldUpdater<Shard> VALUE = AtomicLongFieldUpdater.newUpdater(Shard.class, "value");
+
+  private final AtomicLong base = new AtomicLong();
+  private final Set<Shard> shards = ConcurrentHashMap.newKeySet();
+  private final ThreadLocal<Shard> local = ThreadLocal.withInitial(() -> {
+    fold();
+    Shard shard = new Shard(Thread.currentThread());
+    shards.add(shard);
+    return shard;
+  });
+
+  public void increment() {
+    add(1);
+  }
+
+  public void add(long delta) {
+    Shard shard = local.get();
+    VALUE.lazySet(shard, shard.value + delta);
+  }
+
+  /**
+   * @return the value of the shard of the current thread
+   */
+  public long local() {
+    return local.get().value;
+  }
+
+  /**
+   * @return the sum of all the shards
+   */
+  public synchronized long sum() {
+    fold();
+    long sum = base.get();
+    for (Shard shard : shards) {
+      sum += shard.value;
+    }
+    return sum;
+  }
+
+  // Synchronized with sum() so it never sees a value in both the base and its shard, or in none of them
+  private synchronized void fold() {
+    for (Shard shard : shards) {
+      // The writer is dead, the value of the shard is final
+      if (!shard.thread.isAlive()) {
+        base.addAndGet(shard.value);
+        shards.remove(shard);
+      }
+    }
+  }
+
+  private static class Shard {
+
+    final Thread thread;
+    volatile long value;
+
+    Shard(Thread thread) {
+      this.thread = thread;
+    }
+  }
+}
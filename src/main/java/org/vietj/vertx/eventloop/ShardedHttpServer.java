@@ -0,0 +1,211 @@
+package org.vietj.vertx.eventloop;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts several instances of an HTTP server on the same port, each instance on a distinct event loop.
+ *
+ * Servers created from the same context share its event loop (see {@code UsingEventLoopsFromHttpServers}). Each
+ * instance is deployed as a verticle, the deployments are done one after the other so their contexts get the next
+ * event loops of the round robin. A context created concurrently by another thread can still make two instances
+ * share an event loop, the threads of the instances are checked and the listen fails in this case.
+ *
+ * Each instance counts its requests on its own event loop, {@link #stats(Handler)} collects them from each event
+ * loop. Vert.x 3.0 does not notify the HTTP server of its connections, the number of connections is estimated from
+ * the remote addresses of the requests: an address not seen among the last keep alive connections is counted as
+ * a new connection. The estimate is reported as {@code estimatedConnections}, it overestimates the connections when
+ * more than {@link #MAX_TRACKED_CONNECTIONS} keep alive connections are open on an event loop.
+ */
+public class ShardedHttpServer {
+
+  static final int MAX_TRACKED_CONNECTIONS = 4096;
+
+  private final Vertx vertx;
+  private final HttpServerOptions options;
+  private final int instances;
+  private final List<Shard> shards = new ArrayList<>();
+  private Handler<HttpServerRequest> requestHandler = req -> req.response().end();
+
+  public ShardedHttpServer(Vertx vertx, HttpServerOptions options, int instances) {
+    int eventLoops = 0;
+    for (EventExecutor ignore : vertx.nettyEventLoopGroup()) {
+      eventLoops++;
+    }
+    if (instances < 1 || instances > eventLoops) {
+      throw new IllegalArgumentException("Instances must be between 1 and the " + eventLoops + " event loops");
+    }
+    this.vertx = vertx;
+    this.options = options;
+    this.instances = instances;
+  }
+
+  public Vertx vertx() {
+    return vertx;
+  }
+
+  public ShardedHttpServer requestHandler(Handler<HttpServerRequest> handler) {
+    this.requestHandler = handler;
+    return this;
+  }
+
+  public void listen(Handler<AsyncResult<ShardedHttpServer>> listenHandler) {
+    Context caller = vertx.getOrCreateContext();
+    Handler<AsyncResult<ShardedHttpServer>> done = ar -> caller.runOnContext(v -> listenHandler.handle(ar));
+    deploy(0, ar -> {
+      if (ar.failed()) {
+        close();
+        done.handle(Future.failedFuture(ar.cause()));
+        return;
+      }
+      Set<String> eventLoops = new HashSet<>();
+      synchronized (shards) {
+        shards.forEach(shard -> eventLoops.add(shard.eventLoop));
+      }
+      if (eventLoops.size() < instances) {
+        close();
+        done.handle(Future.failedFuture("Could only find " + eventLoops.size() + " distinct event loops"));
+      } else {
+        done.handle(Future.succeededFuture(this));
+      }
+    });
+  }
+
+  /**
+   * Deploy the instances one after the other, so each deployment gets the next event loop.
+   */
+  private void deploy(int index, Handler<AsyncResult<Void>> handler) {
+    if (index == instances) {
+      handler.handle(Future.succeededFuture());
+      return;
+    }
+    Shard shard = new Shard();
+    vertx.deployVerticle(shard, ar -> {
+      if (ar.failed()) {
+        handler.handle(Future.failedFuture(ar.cause()));
+      } else {
+        synchronized (shards) {
+          shards.add(shard);
+        }
+        deploy(index + 1, handler);
+      }
+    });
+  }
+
+  /**
+   * Collect the requests and the estimated connections of each instance, the array is empty when the server is not
+   * listening.
+   */
+  public void stats(Handler<JsonArray> handler) {
+    Context caller = vertx.getOrCreateContext();
+    List<Shard> list;
+    synchronized (shards) {
+      list = new ArrayList<>(shards);
+    }
+    if (list.isEmpty()) {
+      // Not listening
+      caller.runOnContext(v -> handler.handle(new JsonArray()));
+      return;
+    }
+    JsonObject[] stats = new JsonObject[list.size()];
+    AtomicInteger pending = new AtomicInteger(stats.length);
+    for (int i = 0;i < stats.length;i++) {
+      int index = i;
+      Shard shard = list.get(i);
+      shard.runOnContext(v -> {
+        stats[index] = shard.toJson();
+        if (pending.decrementAndGet() == 0) {
+          JsonArray result = new JsonArray();
+          for (JsonObject json : stats) {
+            result.add(json);
+          }
+          caller.runOnContext(v2 -> handler.handle(result));
+        }
+      });
+    }
+  }
+
+  public void close() {
+    synchronized (shards) {
+      shards.forEach(shard -> vertx.undeploy(shard.deploymentID()));
+      shards.clear();
+    }
+  }
+
+  private static boolean isClosing(HttpServerRequest req) {
+    String connection = req.headers().get("Connection");
+    if (req.version() == HttpVersion.HTTP_1_0) {
+      return !"keep-alive".equalsIgnoreCase(connection);
+    }
+    return "close".equalsIgnoreCase(connection);
+  }
+
+  private class Shard extends AbstractVerticle {
+
+    // Remote addresses of the last keep alive connections
+    final Map<String, Boolean> keepAlive = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > MAX_TRACKED_CONNECTIONS;
+      }
+    };
+    String eventLoop;
+    long requests;
+    long connections;
+
+    @Override
+    public void start(Future<Void> startFuture) throws Exception {
+      eventLoop = Thread.currentThread().getName();
+      HttpServer server = vertx.createHttpServer(options).requestHandler(req -> {
+        requests++;
+        String remote = req.remoteAddress().toString();
+        if (isClosing(req)) {
+          // Last request of the connection
+          if (keepAlive.remove(remote) == null) {
+            connections++;
+          }
+        } else if (keepAlive.put(remote, Boolean.TRUE) == null) {
+          connections++;
+        }
+        requestHandler.handle(req);
+      });
+      server.listen(ar -> {
+        if (ar.succeeded()) {
+          startFuture.complete();
+        } else {
+          startFuture.fail(ar.cause());
+        }
+      });
+    }
+
+    void runOnContext(Handler<Void> action) {
+      context.runOnContext(action);
+    }
+
+    JsonObject toJson() {
+      return new JsonObject()
+          .put("eventLoop", eventLoop)
+          .put("requests", requests)
+          .put("estimatedConnections", connections);
+    }
+  }
+}
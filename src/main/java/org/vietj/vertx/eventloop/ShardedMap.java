@@ -0,0 +1,75 @@
+package org.vietj.vertx.eventloop;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A map with one shard per thread: each event loop updates its own shard, the {@link #aggregate(BiFunction)}
+ * merges the shards of all the threads.
+ *
+ * A shard has a single writer so its updates never contend, the shards are concurrent maps only to allow the
+ * aggregation from another thread.
+ *
+ * The shard of a thread that is dead, e.g a transient thread or the event loop of a closed Vertx instance, is
+ * merged into a base map when the map is aggregated, so the number of shards is bounded by the number of live
+ * threads that updated the map since the last aggregation.
+ */
+public class ShardedMap<K, V> {
+
+  private final Map<K, V> base = new ConcurrentHashMap<>();
+  private final Set<Shard<K, V>> shards = ConcurrentHashMap.newKeySet();
+  private final ThreadLocal<Shard<K, V>> local = ThreadLocal.withInitial(() -> {
+    Shard<K, V> shard = new Shard<>(Thread.currentThread());
+    shards.add(shard);
+    return shard;
+  });
+
+  /**
+   * @return the shard of the current thread
+   */
+  public Map<K, V> local() {
+    return local.get().map;
+  }
+
+  public V put(K key, V value) {
+    return local.get().map.put(key, value);
+  }
+
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+    return local.get().map.merge(key, value, remapping);
+  }
+
+  /**
+   * Merge the shards of all the threads.
+   *
+   * @param merger the function merging the values of a same key
+   * @return the merged map
+   */
+  public synchronized Map<K, V> aggregate(BiFunction<? super V, ? super V, ? extends V> merger) {
+    for (Shard<K, V> shard : shards) {
+      // The writer is dead, the content of the shard is final
+      if (!shard.thread.isAlive()) {
+        shard.map.forEach((key, value) -> base.merge(key, value, merger));
+        shards.remove(shard);
+      }
+    }
+    Map<K, V> result = new HashMap<>(base);
+    for (Shard<K, V> shard : shards) {
+      shard.map.forEach((key, value) -> result.merge(key, value, merger));
+    }
+    return result;
+  }
+
+  private static class Shard<K, V> {
+
+    final Thread thread;
+    final Map<K, V> map = new ConcurrentHashMap<>();
+
+    Shard(Thread thread) {
+      this.thread = thread;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class ShardingHttpServers {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(4));
+    ShardedHttpServer server = new ShardedHttpServer(vertx, new HttpServerOptions().setPort(8080), 4);
+    server.requestHandler(req -> req.response().end("Served by " + Thread.currentThread().getName()));
+    server.listen(ar -> {
+      if (ar.failed()) {
+        ar.cause().printStackTrace();
+        return;
+      }
+      // Send requests over 8 connections
+      HttpClient client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(8));
+      AtomicInteger pending = new AtomicInteger(100);
+      for (int i = 0;i < 100;i++) {
+        client.getNow(8080, "localhost", "/", resp -> resp.bodyHandler(body -> {
+          if (pending.decrementAndGet() == 0) {
+            server.stats(stats -> {
+              System.out.println(stats.encodePrettily());
+              vertx.close();
+            });
+          }
+        }));
+      }
+    });
+  }
+}
@@ -0,0 +1,46 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class SharingStateAcrossContexts {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    eventLoops(vertx);
+    vertx.setTimer(1000, id -> {
+      vertx.eventBus().<JsonObject>send("the-address", "the-message", reply -> {
+        System.out.println(reply.result().body().encodePrettily());
+        vertx.close();
+      });
+    });
+  }
+
+  public static void eventLoops(Vertx vertx) {
+    ShardedCounter ticks = new ShardedCounter();
+    ShardedMap<String, Long> ticksByThread = new ShardedMap<>();
+    for (int i = 0;i < 8;i++) {
+      vertx.deployVerticle(new AbstractVerticle() {
+        @Override
+        public void start() throws Exception {
+          vertx.setPeriodic(100, id -> {
+            // No synchronization, each event loop updates its own shard
+            ticks.increment();
+            ticksByThread.merge(Thread.currentThread().getName(), 1L, Long::sum);
+          });
+          vertx.eventBus().consumer("the-address", msg -> {
+            JsonObject state = new JsonObject().put("ticks", ticks.sum());
+            ticksByThread.aggregate(Long::sum).forEach(state::put);
+            msg.reply(state);
+          });
+        }
+      });
+    }
+  }
+}
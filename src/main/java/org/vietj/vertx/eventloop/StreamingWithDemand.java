@@ -0,0 +1,50 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class StreamingWithDemand {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new AbstractVerticle() {
+      long count;
+      @Override
+      public void start() throws Exception {
+        EventBusReadStream<Integer> stream = new EventBusReadStream<>(vertx, "the-address", 256);
+        stream.handler(record -> {
+          // Process the record, then ask for the next ones
+          if (++count % 100 == 0) {
+            stream.request(100);
+          }
+          if (count == 1_000_000) {
+            System.out.println("Processed " + count + " records on " + Thread.currentThread());
+            vertx.close();
+          }
+        });
+        stream.request(100);
+      }
+    }, new DeploymentOptions().setWorker(true));
+    vertx.runOnContext(v -> {
+      CreditSender<Integer> sender = new CreditSender<>(vertx, "the-address", 1000, CreditSender.OverflowPolicy.PAUSE);
+      new Runnable() {
+        int record;
+        public void run() {
+          // Write until the sender queue is full, resume when it is drained
+          while (record < 1_000_000 && !sender.writeQueueFull()) {
+            sender.write(record++);
+          }
+          if (record < 1_000_000) {
+            sender.drainHandler(v -> run());
+          }
+        }
+      }.run();
+    });
+  }
+}
@@ -1,11 +1,8 @@
 package org.vietj.vertx.eventloop;
 
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 
-import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
-
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
  */
@@ -22,27 +19,27 @@ public abstract class TaskBase {
   }
 
   public void run() throws Exception {
-    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-    PrintStream prev = System.out;
-    System.setOut(new PrintStream(buffer));
-    long now = System.currentTimeMillis();
-    Vertx vertx = Vertx.vertx();
-    try {
-      execute(vertx);
-      long wait = timeout - (System.currentTimeMillis() - now);
-      if (wait > 0) {
-        Thread.sleep(wait);
-      }
-    } finally {
-      System.setOut(prev);
-      vertx.close();
-    }
-    try (FileOutputStream log = new FileOutputStream(
-        "src/main/asciidoc/" + getClass().getName() + ".txt")) {
-      log.write(buffer.toByteArray());
-    }
+    new ScenarioRunner().run(this);
+  }
+
+  /**
+   * @return the name of the output file of the scenario
+   */
+  public String name() {
+    return getClass().getName();
+  }
+
+  /**
+   * @return the time in milliseconds after which a scenario that can not tell when it is done completes
+   */
+  public long timeout() {
+    return timeout;
   }
 
-  public abstract void execute(Vertx vertx);
+  /**
+   * Execute the scenario and complete the {@code completion} when it is done, a scenario that can not tell when it
+   * is done completes it after the {@link #timeout()}.
+   */
+  public abstract void execute(Vertx vertx, Future<Void> completion);
 
 }
@@ -0,0 +1,28 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class TheVirtualWorker extends VirtualWorkerVerticle {
+
+  static final AtomicInteger serial = new AtomicInteger();
+
+  final int id = serial.incrementAndGet();
+
+  @Override
+  public void start() throws Exception {
+    vertx.eventBus().consumer("the-address", blocking(msg -> {
+      try {
+        Thread.sleep(10);
+        msg.reply("Executed by virtual worker " + id + " with " + Thread.currentThread());
+      } catch (InterruptedException e) {
+        msg.fail(0, "Interrupted");
+      }
+    }));
+  }
+}
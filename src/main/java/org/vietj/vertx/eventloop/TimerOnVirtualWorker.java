@@ -0,0 +1,33 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class TimerOnVirtualWorker {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new VirtualWorkerVerticle() {
+      @Override
+      public void start() throws Exception {
+        long now = System.currentTimeMillis();
+        System.out.println("Starting timer on " + Thread.currentThread());
+        vertx.setTimer(1000, id -> {
+          System.out.println("Timer fired " + Thread.currentThread() + " after " + (System.currentTimeMillis() - now) + " ms");
+        });
+        blocking(v -> {
+          try {
+            Thread.sleep(2000);
+            System.out.println("Slept on " + Thread.currentThread());
+          } catch (InterruptedException e) {
+            e.printStackTrace();
+          }
+        }).handle(null);
+      }
+    });
+  }
+}
@@ -0,0 +1,47 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+/**
+ * The timers of a scenario, mirroring {@code vertx.setTimer}, {@code vertx.setPeriodic} and {@code vertx.cancelTimer}
+ * with the clock they are measured with.
+ *
+ * The {@link #system(Vertx)} source uses the Vert.x timers and the system clock, the {@link VirtualTimerSource}
+ * uses a virtual clock so the timers fire without waiting.
+ */
+public interface TimerSource {
+
+  static TimerSource system(Vertx vertx) {
+    return new TimerSource() {
+      @Override
+      public long now() {
+        return System.currentTimeMillis();
+      }
+      @Override
+      public long setTimer(long delay, Handler<Long> handler) {
+        return vertx.setTimer(delay, handler);
+      }
+      @Override
+      public long setPeriodic(long delay, Handler<Long> handler) {
+        return vertx.setPeriodic(delay, handler);
+      }
+      @Override
+      public boolean cancelTimer(long id) {
+        return vertx.cancelTimer(id);
+      }
+    };
+  }
+
+  /**
+   * @return the current time in milliseconds of the clock
+   */
+  long now();
+
+  long setTimer(long delay, Handler<Long> handler);
+
+  long setPeriodic(long delay, Handler<Long> handler);
+
+  boolean cancelTimer(long id);
+
+}
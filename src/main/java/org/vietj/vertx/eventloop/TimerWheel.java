@@ -0,0 +1,246 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed hierarchical timer wheel scheduling the timers of a context, mirroring {@code vertx.setTimer},
+ * {@code vertx.setPeriodic} and {@code vertx.cancelTimer}.
+ *
+ * Scheduling and cancelling a timer are constant time list operations, a single Vert.x periodic timer drives the
+ * wheel at the tick resolution and expires all the timers of a slot at once. The wheel has several levels, each
+ * level covers {@code slots} times the duration of the previous one, the timers of a higher level slot are moved
+ * to the lower levels when the lower level wheel has done a full turn. The periodic timer is cancelled when the
+ * wheel has no timers.
+ *
+ * The wheel is bound to the context that created it and must only be used from this context, the handlers are
+ * called on this context.
+ */
+public class TimerWheel {
+
+  private static final int DETACHED = -1;
+
+  private final Vertx vertx;
+  private final Context context;
+  private final long tickNanos;
+  private final long tickMillis;
+  private final int bits;
+  private final int mask;
+  private final Timeout[][] wheels;
+  private final Map<Long, Timeout> timeouts = new HashMap<>();
+  private long nextId;
+  private long currentTick;
+  private long startTime;
+  private long driverId = -1;
+  // Incremented when the wheel restarts, so a tick loop started before stops
+  private long generation;
+
+  /**
+   * Create a wheel of 4 levels of 256 slots.
+   */
+  public TimerWheel(Vertx vertx, long tick, TimeUnit unit) {
+    this(vertx, tick, unit, 256, 4);
+  }
+
+  public TimerWheel(Vertx vertx, long tick, TimeUnit unit, int slots, int levels) {
+    if (Integer.bitCount(slots) != 1 || slots < 2) {
+      throw new IllegalArgumentException("Slots must be a power of 2");
+    }
+    if (levels < 1 || Integer.numberOfTrailingZeros(slots) * levels > 62) {
+      throw new IllegalArgumentException("Invalid levels " + levels);
+    }
+    this.vertx = vertx;
+    this.context = vertx.getOrCreateContext();
+    this.tickNanos = unit.toNanos(tick);
+    this.tickMillis = Math.max(1, unit.toMillis(tick));
+    this.bits = Integer.numberOfTrailingZeros(slots);
+    this.mask = slots - 1;
+    this.wheels = new Timeout[levels][slots];
+  }
+
+  public long setTimer(long delay, Handler<Long> handler) {
+    return schedule(delay, handler, false);
+  }
+
+  public long setPeriodic(long delay, Handler<Long> handler) {
+    return schedule(delay, handler, true);
+  }
+
+  public boolean cancelTimer(long id) {
+    checkContext();
+    Timeout timeout = timeouts.remove(id);
+    if (timeout == null) {
+      return false;
+    }
+    unlink(timeout);
+    stopDriverIfIdle();
+    return true;
+  }
+
+  /**
+   * @return the number of scheduled timers
+   */
+  public int size() {
+    return timeouts.size();
+  }
+
+  private long schedule(long delay, Handler<Long> handler, boolean periodic) {
+    checkContext();
+    if (delay < 1) {
+      throw new IllegalArgumentException("Cannot schedule a timer with delay < 1 ms");
+    }
+    long now;
+    if (driverId == -1) {
+      // The wheel is empty, restart it from now
+      startTime = System.nanoTime();
+      currentTick = 0;
+      now = 0;
+      generation++;
+      driverId = vertx.setPeriodic(tickMillis, id -> advance());
+    } else {
+      // Account for the time elapsed since the last tick
+      now = Math.max(currentTick, (System.nanoTime() - startTime) / tickNanos);
+    }
+    Timeout timeout = new Timeout(nextId++, TimeUnit.MILLISECONDS.toNanos(delay), handler, periodic);
+    timeouts.put(timeout.id, timeout);
+    place(timeout, now + ticksOf(timeout.delayNanos));
+    return timeout.id;
+  }
+
+  private long ticksOf(long delayNanos) {
+    return Math.max(1, (delayNanos + tickNanos - 1) / tickNanos);
+  }
+
+  private void advance() {
+    long target = (System.nanoTime() - startTime) / tickNanos;
+    long current = generation;
+    // A handler can empty the wheel and schedule a timer, restarting the wheel from now, the target is then stale
+    while (currentTick < target && driverId != -1 && generation == current) {
+      tick();
+    }
+  }
+
+  private void tick() {
+    currentTick++;
+    // Move the timers of the higher levels when the lower level did a full turn
+    for (int level = 1;level < wheels.length;level++) {
+      if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+        break;
+      }
+      int slot = (int) ((currentTick >>> (bits * level)) & mask);
+      Timeout timeout = wheels[level][slot];
+      wheels[level][slot] = null;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        timeout.prev = timeout.next = null;
+        place(timeout, timeout.expiry);
+        timeout = next;
+      }
+    }
+    // Expire all the timers of the slot, the slot is detached first so the handlers scheduling or cancelling
+    // timers do not modify the list being expired
+    int slot = (int) (currentTick & mask);
+    Timeout timeout = wheels[0][slot];
+    wheels[0][slot] = null;
+    for (Timeout detached = timeout;detached != null;detached = detached.next) {
+      detached.slot = DETACHED;
+    }
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      timeout.prev = timeout.next = null;
+      // Skip the timers cancelled by a previous handler of the slot
+      if (timeouts.get(timeout.id) == timeout) {
+        if (timeout.periodic) {
+          place(timeout, currentTick + ticksOf(timeout.delayNanos));
+        } else {
+          timeouts.remove(timeout.id);
+        }
+        try {
+          timeout.handler.handle(timeout.id);
+        } catch (Throwable t) {
+          t.printStackTrace();
+        }
+      }
+      timeout = next;
+    }
+    stopDriverIfIdle();
+  }
+
+  private void place(Timeout timeout, long expiry) {
+    timeout.expiry = expiry;
+    long diff = expiry - currentTick;
+    int level = 0;
+    while (level < wheels.length - 1 && diff >= (1L << (bits * (level + 1)))) {
+      level++;
+    }
+    int slot;
+    if (diff >= (1L << (bits * (level + 1)))) {
+      // Beyond the last level: park it in the slot moved last, it will be placed again then
+      slot = (int) (((currentTick >>> (bits * level)) - 1) & mask);
+    } else {
+      slot = (int) ((expiry >>> (bits * level)) & mask);
+    }
+    timeout.level = level;
+    timeout.slot = slot;
+    Timeout head = wheels[level][slot];
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    wheels[level][slot] = timeout;
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.slot == DETACHED) {
+      // Being expired, the tick skips it since it is not in the timeouts anymore
+      return;
+    }
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else if (wheels[timeout.level][timeout.slot] == timeout) {
+      wheels[timeout.level][timeout.slot] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = timeout.next = null;
+  }
+
+  private void stopDriverIfIdle() {
+    if (timeouts.isEmpty() && driverId != -1) {
+      vertx.cancelTimer(driverId);
+      driverId = -1;
+    }
+  }
+
+  private void checkContext() {
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("Must be used from the context that created it");
+    }
+  }
+
+  private static class Timeout {
+
+    final long id;
+    final long delayNanos;
+    final Handler<Long> handler;
+    final boolean periodic;
+    long expiry;
+    int level;
+    int slot;
+    Timeout prev;
+    Timeout next;
+
+    Timeout(long id, long delayNanos, Handler<Long> handler, boolean periodic) {
+      this.id = id;
+      this.delayNanos = delayNanos;
+      this.handler = handler;
+      this.periodic = periodic;
+    }
+  }
+}
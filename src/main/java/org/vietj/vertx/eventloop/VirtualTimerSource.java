@@ -0,0 +1,233 @@
+package org.vietj.vertx.eventloop;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link TimerSource} with a virtual clock: when Vert.x is idle, the clock jumps to the next timer and fires
+ * it, so a scenario waiting for timers completes in milliseconds while {@link #now()} reports the logical time.
+ *
+ * Vert.x is idle when the timer handlers fired have returned and no task is queued or running on the event loops
+ * and the worker pool. The time spent by the scenario between two timers does not advance the clock, the firing
+ * order only depends on the delays. The tasks Vert.x does not schedule on its threads, like the network IO in
+ * flight or the Vert.x timers, are not seen: the clock is meant for scenarios using these timers, the event bus
+ * and the blocking code.
+ *
+ * The handlers are called on the context that scheduled the timer. The clock is driven by a daemon thread started
+ * with the first timer and stopped with {@link #close()}, or when Vert.x is closed.
+ */
+public class VirtualTimerSource implements TimerSource {
+
+  private static final long IDLE_CHECK_TIMEOUT = 100;
+
+  private final Vertx vertx;
+  private final PriorityQueue<Timer> queue = new PriorityQueue<>((t1, t2) -> t1.deadline != t2.deadline ?
+      Long.compare(t1.deadline, t2.deadline) : Long.compare(t1.id, t2.id));
+  private final Map<Long, Timer> timers = new HashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private long nextId;
+  private long generation;
+  private volatile long now;
+  private Thread driver;
+  private boolean closed;
+
+  public VirtualTimerSource(Vertx vertx) {
+    this(vertx, System.currentTimeMillis());
+  }
+
+  public VirtualTimerSource(Vertx vertx, long start) {
+    this.vertx = vertx;
+    this.now = start;
+  }
+
+  @Override
+  public long now() {
+    return now;
+  }
+
+  @Override
+  public long setTimer(long delay, Handler<Long> handler) {
+    return schedule(delay, handler, false);
+  }
+
+  @Override
+  public long setPeriodic(long delay, Handler<Long> handler) {
+    return schedule(delay, handler, true);
+  }
+
+  @Override
+  public synchronized boolean cancelTimer(long id) {
+    Timer timer = timers.remove(id);
+    if (timer == null) {
+      return false;
+    }
+    queue.remove(timer);
+    generation++;
+    return true;
+  }
+
+  public synchronized void close() {
+    closed = true;
+    notifyAll();
+  }
+
+  private synchronized long schedule(long delay, Handler<Long> handler, boolean periodic) {
+    if (delay < 1) {
+      throw new IllegalArgumentException("Cannot schedule a timer with delay < 1 ms");
+    }
+    Timer timer = new Timer(nextId++, delay, now + delay, periodic, handler, vertx.getOrCreateContext());
+    timers.put(timer.id, timer);
+    queue.add(timer);
+    generation++;
+    if (driver == null) {
+      driver = new Thread(this::drive, "vert.x-virtual-clock");
+      driver.setDaemon(true);
+      driver.start();
+    }
+    notifyAll();
+    return timer.id;
+  }
+
+  private void drive() {
+    try {
+      while (true) {
+        long observed;
+        synchronized (this) {
+          while (queue.isEmpty() && !closed) {
+            wait();
+          }
+          if (closed) {
+            return;
+          }
+          observed = generation;
+        }
+        // Two consecutive idle checks without timer changes
+        if (!isIdle() || !isIdle()) {
+          Thread.sleep(1);
+          continue;
+        }
+        List<Timer> expired = new ArrayList<>();
+        synchronized (this) {
+          if (observed != generation || queue.isEmpty()) {
+            continue;
+          }
+          long deadline = queue.peek().deadline;
+          while (!queue.isEmpty() && queue.peek().deadline == deadline) {
+            Timer timer = queue.poll();
+            if (timer.periodic) {
+              timer.deadline += timer.delay;
+              queue.add(timer);
+            }
+            expired.add(timer);
+          }
+          now = deadline;
+          generation++;
+        }
+        for (Timer timer : expired) {
+          inFlight.incrementAndGet();
+          try {
+            timer.context.runOnContext(v -> {
+              try {
+                if (fire(timer)) {
+                  timer.handler.handle(timer.id);
+                }
+              } finally {
+                inFlight.decrementAndGet();
+              }
+            });
+          } catch (RejectedExecutionException e) {
+            // Vert.x is closed
+            close();
+            return;
+          }
+        }
+      }
+    } catch (InterruptedException ignore) {
+    }
+  }
+
+  private synchronized boolean fire(Timer timer) {
+    // The timer might have been cancelled by a previous handler
+    if (timers.get(timer.id) != timer) {
+      return false;
+    }
+    if (!timer.periodic) {
+      timers.remove(timer.id);
+    }
+    return true;
+  }
+
+  private boolean isIdle() throws InterruptedException {
+    if (inFlight.get() > 0) {
+      return false;
+    }
+    // Wait for the tasks queued on the event loops
+    List<EventExecutor> loops = new ArrayList<>();
+    for (EventExecutor loop : vertx.nettyEventLoopGroup()) {
+      loops.add(loop);
+    }
+    CountDownLatch latch = new CountDownLatch(loops.size());
+    try {
+      for (EventExecutor loop : loops) {
+        if (loop.isShuttingDown()) {
+          throw new RejectedExecutionException();
+        }
+        loop.execute(latch::countDown);
+      }
+    } catch (RejectedExecutionException e) {
+      // Vert.x is closed, the driver stops
+      close();
+      return false;
+    }
+    // A busy event loop is not idle
+    if (!latch.await(IDLE_CHECK_TIMEOUT, TimeUnit.MILLISECONDS) || inFlight.get() > 0) {
+      return false;
+    }
+    for (EventExecutor loop : loops) {
+      if (loop instanceof SingleThreadEventExecutor && ((SingleThreadEventExecutor) loop).pendingTasks() > 0) {
+        return false;
+      }
+    }
+    ExecutorService workers = ((VertxInternal) vertx).getWorkerPool();
+    if (workers instanceof ThreadPoolExecutor) {
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) workers;
+      return pool.getActiveCount() == 0 && pool.getQueue().isEmpty();
+    }
+    return true;
+  }
+
+  private static class Timer {
+
+    final long id;
+    final long delay;
+    final boolean periodic;
+    final Handler<Long> handler;
+    final Context context;
+    long deadline;
+
+    Timer(long id, long delay, long deadline, boolean periodic, Handler<Long> handler, Context context) {
+      this.id = id;
+      this.delay = delay;
+      this.deadline = deadline;
+      this.periodic = periodic;
+      this.handler = handler;
+      this.context = context;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.docgen.Source;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class VirtualWorkerInstancesReplying {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setWorkerPoolSize(2));
+    vertx.deployVerticle(
+        TheVirtualWorker.class.getName(),
+        new DeploymentOptions().setInstances(1000),
+        ar -> {
+          long now = System.currentTimeMillis();
+          AtomicInteger count = new AtomicInteger(1000);
+          for (int i = 0;i < 1000;i++) {
+            vertx.eventBus().send("the-address", "the-message", reply -> {
+              if (count.decrementAndGet() == 0) {
+                System.out.println("Replied to 1000 messages after " + (System.currentTimeMillis() - now) + " ms");
+                vertx.close();
+              }
+            });
+          }
+        }
+    );
+  }
+}
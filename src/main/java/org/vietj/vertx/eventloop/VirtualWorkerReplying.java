@@ -0,0 +1,32 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class VirtualWorkerReplying {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new VirtualWorkerVerticle() {
+      @Override
+      public void start() throws Exception {
+        vertx.eventBus().consumer("the-address", blocking(msg -> {
+          try {
+            Thread.sleep(10);
+            System.out.println("Executed by " + Thread.currentThread());
+            msg.reply("whatever");
+          } catch (InterruptedException e) {
+            msg.fail(0, "Interrupted");
+          }
+        }));
+      }
+    }, ar -> {
+      // Send 10 messages
+      WorkerReplying.send(vertx, 10);
+    });
+  }
+}
@@ -0,0 +1,113 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Handler;
+import io.vertx.core.VertxException;
+
+import java.util.LinkedList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A verticle deployed on an event loop context whose blocking handlers are executed outside of the worker pool.
+ *
+ * The handlers wrapped with {@link #blocking(Handler)} are executed one after the other in the order they
+ * were called, like the handlers of a worker verticle. They run on virtual threads when the JVM provides them
+ * (Java 21+), so the number of concurrent blocking handlers is not capped by the worker pool size.
+ *
+ * Older JVMs have no virtual threads, the handlers then run on a pool of daemon platform threads bounded by the
+ * {@code vertx.virtualWorker.maxThreads} system property (256 by default), the handlers of the verticles
+ * beyond this number are queued. {@link #isVirtual()} tells which executor is used.
+ *
+ * A blocking handler does not run on the verticle context, just like the blocking code of
+ * {@code executeBlocking} it should use {@code context.runOnContext} to update the verticle state.
+ */
+public abstract class VirtualWorkerVerticle extends AbstractVerticle {
+
+  private static final int MAX_PLATFORM_THREADS = Integer.getInteger("vertx.virtualWorker.maxThreads", 256);
+  private static final boolean virtual;
+  private static final ExecutorService executor;
+
+  static {
+    ExecutorService virtualExecutor;
+    try {
+      // Java 21+
+      virtualExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      virtualExecutor = null;
+    } catch (ReflectiveOperationException e) {
+      throw new VertxException(e);
+    }
+    virtual = virtualExecutor != null;
+    executor = virtual ? virtualExecutor : createPlatformExecutor();
+  }
+
+  private static ExecutorService createPlatformExecutor() {
+    AtomicInteger serial = new AtomicInteger();
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_PLATFORM_THREADS, MAX_PLATFORM_THREADS,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+      Thread thread = new Thread(r, "vert.x-virtual-worker-thread-" + serial.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * @return true when the blocking handlers run on virtual threads, false when they run on the bounded pool of
+   *         platform threads
+   */
+  public static boolean isVirtual() {
+    return virtual;
+  }
+
+  private final Executor ordered = new OrderedExecutor();
+
+  /**
+   * Wrap the {@code handler} so it is executed on the blocking executor of this verticle.
+   */
+  protected <T> Handler<T> blocking(Handler<T> handler) {
+    return event -> ordered.execute(() -> handler.handle(event));
+  }
+
+  private static class OrderedExecutor implements Executor {
+
+    private final LinkedList<Runnable> tasks = new LinkedList<>();
+    private boolean running;
+
+    private final Runnable runner = () -> {
+      while (true) {
+        Runnable task;
+        synchronized (tasks) {
+          task = tasks.poll();
+          if (task == null) {
+            running = false;
+            return;
+          }
+        }
+        try {
+          task.run();
+        } catch (Throwable t) {
+          t.printStackTrace();
+        }
+      }
+    };
+
+    @Override
+    public void execute(Runnable command) {
+      synchronized (tasks) {
+        tasks.add(command);
+        if (!running) {
+          running = true;
+          executor.execute(runner);
+        }
+      }
+    }
+  }
+}
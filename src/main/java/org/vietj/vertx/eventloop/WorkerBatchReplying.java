@@ -0,0 +1,35 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.docgen.Source;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class WorkerBatchReplying {
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        BatchingConsumer.<String, String>consumer(vertx.eventBus(), "the-address", (body, reply) -> {
+          reply.complete("Executed " + body + " by " + Thread.currentThread());
+        });
+      }
+    }, new DeploymentOptions().setWorker(true), ar -> {
+      vertx.runOnContext(v -> {
+        // The 10 messages are sent in a single envelope
+        BatchingSender<String, String> sender = new BatchingSender<>(vertx, "the-address", 100);
+        for (int i = 0;i < 10;i++) {
+          sender.send("the-message-" + i, reply -> {
+            System.out.println(reply.result());
+          });
+        }
+      });
+    });
+  }
+}
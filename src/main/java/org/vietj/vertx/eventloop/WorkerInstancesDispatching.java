@@ -0,0 +1,62 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.docgen.Source;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@Source
+public class WorkerInstancesDispatching {
+
+  public static class TheSlowWorker extends AbstractVerticle {
+
+    private MessageConsumer<String> consumer;
+
+    @Override
+    public void start() throws Exception {
+      consumer = LeastLoadedDispatcher.join(vertx, "the-address", msg -> {
+        try {
+          // Between 0 and 20 ms
+          Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+        } catch (InterruptedException ignore) {
+        }
+        msg.reply("done");
+      });
+    }
+
+    @Override
+    public void stop() throws Exception {
+      LeastLoadedDispatcher.leave(vertx, "the-address", consumer);
+    }
+  }
+
+  public static void main(String[] args) {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      LeastLoadedDispatcher dispatcher = LeastLoadedDispatcher.dispatcher(vertx, "the-address", 1);
+      vertx.deployVerticle(TheSlowWorker.class.getName(), new DeploymentOptions().setWorker(true).setInstances(3), ar -> {
+        Histogram latencies = new Histogram(3);
+        vertx.setPeriodic(4, id -> {
+          long start = System.nanoTime();
+          vertx.eventBus().send("the-address", "the-message", reply -> {
+            latencies.recordValue((System.nanoTime() - start) / 1000);
+            if (latencies.getTotalCount() == 500) {
+              vertx.cancelTimer(id);
+              System.out.println(dispatcher.metrics().encodePrettily());
+              System.out.println("p50 " + latencies.getValueAtPercentile(50) / 1000D + " ms p99 " +
+                  latencies.getValueAtPercentile(99) / 1000D + " ms");
+              vertx.close();
+            }
+          });
+        });
+      });
+    });
+  }
+}
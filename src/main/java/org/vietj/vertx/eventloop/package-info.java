@@ -56,6 +56,30 @@
  * The event loop must not be blocked, because it will freeze the parts of the applications using that event loop, with
  * severe consequences on the scalability and the throughput of the application.
  *
+ * The warning only shows up after the event loop has been blocked for seconds. Handlers blocking a few milliseconds
+ * on every call are much harder to find, the `BlockedThreadSampler` checks the event loop threads at a short interval,
+ * samples the stack of a thread running the same task for longer than a threshold and records for each handler how
+ * long it was running:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.SamplingBlockedEventLoop#main}
+ * ----
+ *
+ * This prints:
+ *
+ * ----
+ * {
+ *   "org.vietj.vertx.eventloop.SamplingBlockedEventLoop.lambda$main$0" : {
+ *     "count" : 497,
+ *     "p50" : 3.045375,
+ *     "p99" : 3.497983,
+ *     "p999" : 4.100095,
+ *     "max" : 4.100095
+ *   }
+ * }
+ * ----
+ *
  * == The context
  *
  * Beyond the event loop, Vert.x defines the notion of a *_context_*. At a high level, the context can be thought of as
@@ -169,6 +193,23 @@
  * {@link org.vietj.vertx.eventloop.ConfigureThreadPool#eventLoop}
  * ----
  *
+ * An event loop always uses the same thread but the operating system is free to move this thread from a core to
+ * another, the data the event loop works on must then be fetched again in the caches of the new core. On Linux
+ * the {@link org.vietj.vertx.eventloop.CpuAffinity} pins the event loops to dedicated CPUs and the worker threads
+ * to a separate set of CPUs:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.PinningEventLoops#main}
+ * ----
+ *
+ * The worker threads are created on demand, the thread factory of the worker pool is wrapped so each new worker pins
+ * itself when it starts: this must be done before any blocking code is executed. The event loop threads are created
+ * by Vert.x with its own thread factory and Netty starts them lazily, so a task executed on each event loop reads the
+ * id of its thread and a worker runs `taskset` for it, the event loop does not wait for the process. The
+ * `CpuAffinityBenchmark` measures consumers walking a working set that fits in the core caches with and without
+ * pinning, the gain only shows on a machine with several cores.
+ *
  * === Worker context
  *
  * Worker contexts are assigned to verticles deployed with the worker option enabled. The worker context is
@@ -237,6 +278,70 @@
  * {@link org.vietj.vertx.eventloop.WorkerInstancesReplying#main}
  * ----
  *
+ * The worker pool size caps the number of blocking handlers running at the same time. A
+ * {@link org.vietj.vertx.eventloop.VirtualWorkerVerticle} is deployed on an event loop and runs its handlers wrapped
+ * with `blocking` one after the other on virtual threads when the JVM provides them, or on a bounded pool of
+ * platform threads otherwise:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.VirtualWorkerReplying#main}
+ * ----
+ *
+ * Since the verticle runs on an event loop, its timers are not delayed by its blocking handlers anymore:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.TimerOnVirtualWorker#main}
+ * ----
+ *
+ * This prints:
+ *
+ * ----
+ * Starting timer on Thread[vert.x-eventloop-thread-0,5,main]
+ * Timer fired Thread[vert.x-eventloop-thread-0,5,main] after 1004 ms
+ * Slept on Thread[vert.x-virtual-worker-thread-0,5,main]
+ * ----
+ *
+ * The messages sent to a worker are queued on its context whatever the number of messages already queued, a slow
+ * worker lets its queue grow without limit. The {@link org.vietj.vertx.eventloop.CreditConsumer} has a bounded inbox
+ * and grants credits to the {@link org.vietj.vertx.eventloop.CreditSender}, a sender queues the messages it can not
+ * send and drops them, rejects them or pauses its writer when its queue is full. A closed sender gives its unused
+ * credits back to the consumer:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.SendingWithCredits#main}
+ * ----
+ *
+ * This prints:
+ *
+ * ----
+ * Max inbox size 15
+ * Sent 307 dropped 2598 queued 100
+ * ----
+ *
+ * The {@link org.vietj.vertx.eventloop.EventBusReadStream} reads the messages of an address as a `ReadStream`
+ * granting credits according to the demand of its reader, signalled with `request(n)` or with `pause` and `resume`,
+ * the memory used for streaming records through a worker is then bounded:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.StreamingWithDemand#main}
+ * ----
+ *
+ * The event bus delivers the messages to the instances in round robin, a message can wait behind a slow message
+ * while another instance is idle. The {@link org.vietj.vertx.eventloop.LeastLoadedDispatcher} sends each message to
+ * the instance with the fewest messages in flight and keeps the others until an instance is available:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.WorkerInstancesDispatching#main}
+ * ----
+ *
+ * A message no longer waits behind a slow message while another instance is idle, this lowers the high percentiles
+ * of the latency compared with the round robin.
+ *
  * Workers can schedule timers:
  *
  * [source,java]
@@ -291,6 +396,24 @@
  * Timer fired Thread[vert.x-worker-thread-0,5,main] after 2007 ms
  * ----
  *
+ * These scenarios wait for their timers in real time. With a {@link org.vietj.vertx.eventloop.VirtualTimerSource}
+ * the clock jumps to the next timer as soon as Vert.x is idle:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.PeriodicOnVirtualClock#main}
+ * ----
+ *
+ * The periodic still reports the logical delays, but the scenario completes without waiting for them:
+ *
+ * ----
+ * Starting periodic on Thread[vert.x-worker-thread-0,5,main]
+ * Periodic fired Thread[vert.x-worker-thread-1,5,main] after 1000 ms
+ * Periodic fired Thread[vert.x-worker-thread-2,5,main] after 2000 ms
+ * ...
+ * Periodic fired Thread[vert.x-worker-thread-10,5,main] after 10000 ms
+ * ----
+ *
  * Just like event loop, the size of the worker thread pool can be configured when creatin a Vertx instance:
  *
  * [source,java]
@@ -402,6 +525,27 @@
  * Runs on the original context : io.vertx.core.impl.EventLoopContext@69cdd6d8
  * ----
  *
+ * Each `runOnContext` call allocates a task and schedules it on the context, a thread handing off a high volume of
+ * events to a context can use a {@link org.vietj.vertx.eventloop.ContextChannel} instead: the events are stored in a
+ * preallocated ring buffer and handled in batches by a single task of the context:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.HandingOffToContext#start()}
+ * ----
+ *
+ * The channel saves the allocation and the scheduling of a task per event, the `ContextChannelBenchmark` compares
+ * it with `runOnContext`.
+ *
+ * APIs accepting an `Executor`, like the `CompletableFuture` async stages, can run their callbacks on a context
+ * with a {@link org.vietj.vertx.eventloop.ContextExecutor}. The direct executor runs the stages completed from the
+ * context immediately instead of scheduling another task:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.CompletingOnContext#start()}
+ * ----
+ *
  * The `vertx.runOnContext(Handler<Void>)` is a shortcut for what we have seen before: it calls the
  * `getOrCreateContext` method and schedule a task for execution via the `context.runOnContext(Handler<Void>)` method.
  *
@@ -485,6 +629,42 @@
 
  If you call executeBlocking multiple times in any particular instance they will be executed in the order you called them. If we didn't do that you'd get into a mess, e.g. if you did an insertBlocking to insert some data into a table, followed by another to select from that table, then there'd be no guarantee in which order they occurred so you might not find your data.
 
+ *
+ * The `executeBlocking` method has an `ordered` flag, when it is `false` the blocking actions are executed in
+ * parallel on the worker pool without limit. The `BoundedBlockingExecutor` limits the number of blocking actions
+ * in flight for a context and signals when the limit is reached, pretty much like a `WriteStream`:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.ExecuteBlockingBoundedParallel#execute}
+ * ----
+ *
+ * The blocking code completes its future with a single result, reading a large file or a database cursor this way
+ * requires to keep the whole result in memory. The `BlockingReadStream` lets the blocking code emit chunks that are
+ * delivered on the context as a `ReadStream`, the blocking code waits when the stream is paused and its buffer is
+ * full:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.ExecuteBlockingStreaming#execute}
+ * ----
+ *
+ * This prints:
+ *
+ * ----
+ * Calling blocking block from Thread[vert.x-eventloop-thread-1,5,main]
+ * Emitting chunk 0 with Thread[vert.x-worker-thread-0,5,main]
+ * Emitting chunk 1 with Thread[vert.x-worker-thread-0,5,main]
+ * Emitting chunk 2 with Thread[vert.x-worker-thread-0,5,main]
+ * Got chunk 0 in Thread[vert.x-eventloop-thread-1,5,main]
+ * Got chunk 1 in Thread[vert.x-eventloop-thread-1,5,main]
+ * Emitting chunk 3 with Thread[vert.x-worker-thread-0,5,main]
+ * ...
+ * Done
+ * ----
+ *
+ * The waiting blocking code holds a worker thread, a stream that might never be resumed must be cancelled or created
+ * with an emit timeout failing the stream when the blocking code waits for too long.
  *
  * === Determining the kind of context
  *
@@ -577,6 +757,57 @@
  *
  * Now we can share state between the two servers safely.
  *
+ * The opposite is sometimes needed: starting one server instance per event loop so the connections are spread
+ * over all the event loops. Since the event loop of a context is chosen by round robin, creating several servers
+ * does not guarantee they use distinct event loops. The {@link org.vietj.vertx.eventloop.ShardedHttpServer} deploys
+ * each instance as a verticle one after the other, so each instance gets the next event loop, and checks that the
+ * instances use distinct event loop threads. It also counts the requests handled by each event loop and estimates
+ * the connections from the remote addresses of the requests, since Vert.x does not expose the connections of an
+ * HTTP server:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.ShardingHttpServers#main}
+ * ----
+ *
+ * This prints:
+ *
+ * ----
+ * [ {
+ *   "eventLoop" : "vert.x-eventloop-thread-3",
+ *   "requests" : 30,
+ *   "estimatedConnections" : 2
+ * }, {
+ *   "eventLoop" : "vert.x-eventloop-thread-0",
+ *   "requests" : 27,
+ *   "estimatedConnections" : 2
+ * }, ...
+ * ----
+ *
+ * With short lived connections, the connections are accepted at a high rate. The
+ * {@link org.vietj.vertx.eventloop.HttpServerLauncher} configures the server for this case: an instance per event
+ * loop, a larger accept backlog and `TCP_NODELAY`. The instances still share the single listening socket of the
+ * server, Vert.x 3.0 does not provide the native transport and `SO_REUSEPORT` that would let the kernel balance the
+ * accepts between a listening socket per event loop. The example measures the connections per second of a default
+ * server and of the launched server, the launched server only makes a difference on a machine with several cores:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.LaunchingHttpServers#main}
+ * ----
+ *
+ * The {@link org.vietj.vertx.eventloop.HttpLoadGenerator} measures these topologies with a Vert.x HTTP client, in
+ * a closed loop to find the maximum throughput, or at a fixed rate to measure the latencies from the intended send
+ * time of each request so they account for the coordinated omission:
+ *
+ * [source,java]
+ * ----
+ * {@link org.vietj.vertx.eventloop.ComparingServerTopologies#main}
+ * ----
+ *
+ * The servers sharing a single context are limited to one event loop whatever the number of cores, the servers on
+ * distinct event loops scale with the cores of the machine.
+ *
  * == Vert.x Core apis
  *
  * Vert.x API consumes handlers and assign them to context, this section provides a quick overview of the Vert.x
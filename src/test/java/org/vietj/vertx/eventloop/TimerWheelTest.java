@@ -0,0 +1,99 @@
+package org.vietj.vertx.eventloop;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class TimerWheelTest {
+
+  private Vertx vertx;
+  private Context context;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CompletableFuture<Void> closed = new CompletableFuture<>();
+    vertx.close(ar -> closed.complete(null));
+    closed.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testCancelTimerOfSameSlotFromHandler() throws Exception {
+    CompletableFuture<List<Long>> done = new CompletableFuture<>();
+    int[] size = new int[1];
+    context.runOnContext(v -> {
+      TimerWheel wheel = new TimerWheel(vertx, 10, TimeUnit.MILLISECONDS);
+      List<Long> fired = new ArrayList<>();
+      long[] ids = new long[3];
+      for (int i = 0;i < ids.length;i++) {
+        // Scheduled during the same tick, the 3 timers expire in the same slot
+        ids[i] = wheel.setTimer(50, id -> {
+          if (fired.isEmpty()) {
+            // Cancel the timer in the middle of the slot
+            wheel.cancelTimer(ids[1]);
+          }
+          fired.add(id);
+        });
+      }
+      vertx.setTimer(200, id -> {
+        size[0] = wheel.size();
+        done.complete(fired);
+      });
+    });
+    List<Long> fired = done.get(10, TimeUnit.SECONDS);
+    assertEquals(2, fired.size());
+    assertTrue(fired.containsAll(Arrays.asList(0L, 2L)));
+    assertEquals(0, size[0]);
+  }
+
+  @Test
+  public void testCancelTimerFromItsOwnHandler() throws Exception {
+    CompletableFuture<Integer> done = new CompletableFuture<>();
+    context.runOnContext(v -> {
+      TimerWheel wheel = new TimerWheel(vertx, 10, TimeUnit.MILLISECONDS);
+      int[] count = new int[1];
+      wheel.setPeriodic(20, id -> {
+        if (++count[0] == 3) {
+          wheel.cancelTimer(id);
+          vertx.setTimer(100, id2 -> done.complete(wheel.size()));
+        }
+      });
+    });
+    assertEquals(0, (int) done.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testRestartFromHandler() throws Exception {
+    CompletableFuture<Long> done = new CompletableFuture<>();
+    context.runOnContext(v -> {
+      TimerWheel wheel = new TimerWheel(vertx, 10, TimeUnit.MILLISECONDS);
+      wheel.setPeriodic(500, id -> {
+        // The wheel is empty and restarts with the new timer
+        wheel.cancelTimer(id);
+        long start = System.nanoTime();
+        wheel.setTimer(100, id2 -> done.complete(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+      });
+    });
+    long elapsed = done.get(10, TimeUnit.SECONDS);
+    assertTrue("Fired after " + elapsed + " ms", elapsed >= 90);
+  }
+}